@@ -0,0 +1,90 @@
+package jobshop;
+
+import jobshop.encodings.BatchMakespanEvaluator;
+import jobshop.encodings.JobNumbers;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/** Makespan of a population of random JobNumbers chromosomes : one toSchedule() or makespan() per chromosome,
+ * or one call to a BatchMakespanEvaluator (with and without copying the population in it). */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class BatchEvaluationBenchmark {
+
+    @Param({"ft10", "la21", "ta51", "gen100x20"})
+    public String instanceName;
+
+    @Param({"64"})
+    public int populationSize;
+
+    private JobNumbers[] population;
+    private BatchMakespanEvaluator batch;
+    private int[] makespans;
+
+    @Setup
+    public void setup() throws IOException {
+        Instance instance = BenchmarkInstances.get(instanceName);
+        SplittableRandom random = new SplittableRandom(0);
+
+        population = new JobNumbers[populationSize];
+        for(int k = 0 ; k < populationSize ; k++) {
+            JobNumbers chromosome = new JobNumbers(instance);
+            for(int j = 0 ; j < instance.numJobs ; j++) {
+                for(int t = 0 ; t < instance.numTasks ; t++) {
+                    chromosome.jobs[chromosome.nextToSet++] = j;
+                }
+            }
+            for(int i = chromosome.jobs.length - 1 ; i > 0 ; i--) {
+                int index = random.nextInt(i + 1);
+                int tmp = chromosome.jobs[index];
+                chromosome.jobs[index] = chromosome.jobs[i];
+                chromosome.jobs[i] = tmp;
+            }
+            population[k] = chromosome;
+        }
+
+        batch = new BatchMakespanEvaluator(instance, populationSize);
+        for(int k = 0 ; k < populationSize ; k++) {
+            batch.set(k, population[k].jobs);
+        }
+        makespans = new int[populationSize];
+    }
+
+    @Benchmark
+    public int[] toSchedule() {
+        for(int k = 0 ; k < populationSize ; k++) {
+            makespans[k] = population[k].toSchedule().makespan();
+        }
+        return makespans;
+    }
+
+    @Benchmark
+    public int[] makespan() {
+        for(int k = 0 ; k < populationSize ; k++) {
+            makespans[k] = population[k].makespan();
+        }
+        return makespans;
+    }
+
+    @Benchmark
+    public int[] batch() {
+        batch.evaluate(populationSize, makespans);
+        return makespans;
+    }
+
+    @Benchmark
+    public int[] batchWithCopy() {
+        for(int k = 0 ; k < populationSize ; k++) {
+            batch.set(k, population[k].jobs);
+        }
+        batch.evaluate(populationSize, makespans);
+        return makespans;
+    }
+}
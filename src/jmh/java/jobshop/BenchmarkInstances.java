@@ -0,0 +1,47 @@
+package jobshop;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Random;
+
+/** Instances used by the benchmarks.
+ *
+ * A name of the form "genJxM" (e.g. gen100x20) designates a random instance with J jobs and M machines,
+ * generated with a fixed seed so that every run benchmarks the same instance.
+ * Any other name is loaded from the instances/ directory (ft10, la21, abz7, ta51, ...).
+ */
+public class BenchmarkInstances {
+
+    public static Instance get(String name) throws IOException {
+        if(name.startsWith("gen")) {
+            String[] size = name.substring(3).split("x");
+            return generate(Integer.parseInt(size[0]), Integer.parseInt(size[1]), 0);
+        }
+        return Instance.fromFile(Paths.get("instances/", name));
+    }
+
+    /** Random instance : each job visits the machines in a random order, durations are uniform in [1, 99]. */
+    static Instance generate(int numJobs, int numMachines, long seed) {
+        Random random = new Random(seed);
+        Instance pb = new Instance(numJobs, numMachines);
+
+        for(int job = 0 ; job < numJobs ; job++) {
+            int[] machines = pb.machines[job];
+            for(int task = 0 ; task < numMachines ; task++) {
+                machines[task] = task;
+            }
+            // Fisher-Yates shuffle of the route of the job
+            for(int task = numMachines - 1 ; task > 0 ; task--) {
+                int other = random.nextInt(task + 1);
+                int tmp = machines[task];
+                machines[task] = machines[other];
+                machines[other] = tmp;
+            }
+            for(int task = 0 ; task < numMachines ; task++) {
+                pb.durations[job][task] = 1 + random.nextInt(99);
+            }
+        }
+        pb.computeIndexes();
+        return pb;
+    }
+}
@@ -0,0 +1,24 @@
+package jobshop;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/** Runs all benchmarks with the GC profiler, that reports the allocation rate
+ * (gc.alloc.rate.norm : bytes allocated per operation) next to the throughput.
+ *
+ * Arguments (optional) : the instances to benchmark, instead of the default ones. */
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws RunnerException {
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .include("jobshop\\..*Benchmark")
+                .addProfiler(GCProfiler.class);
+        if(args.length > 0) {
+            options.param("instanceName", args);
+        }
+        new Runner(options.build()).run();
+    }
+}
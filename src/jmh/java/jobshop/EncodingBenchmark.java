@@ -0,0 +1,71 @@
+package jobshop;
+
+import jobshop.encodings.JobNumbers;
+import jobshop.encodings.ResourceOrder;
+import jobshop.encodings.Task;
+import jobshop.solvers.GreedySolver;
+import jobshop.solvers.GreedySolver.Priorite;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Throughput of the decoders of the two encodings and of the methods of Schedule.
+ *
+ * All benchmarks work on the solution of the EST_LRPT greedy solver of the instance. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class EncodingBenchmark {
+
+    @Param({"ft10", "la21", "abz7", "ta51", "gen100x20", "gen500x20"})
+    public String instanceName;
+
+    private JobNumbers jobNumbers;
+    private ResourceOrder resourceOrder;
+    private Schedule schedule;
+
+    @Setup
+    public void setup() throws IOException {
+        Instance instance = BenchmarkInstances.get(instanceName);
+        Schedule greedy = new GreedySolver(Priorite.EST_LRPT).solve(instance, Long.MAX_VALUE).schedule;
+
+        jobNumbers = new JobNumbers(greedy);
+        resourceOrder = new ResourceOrder(greedy);
+        schedule = resourceOrder.toSchedule();
+    }
+
+    @Benchmark
+    public Schedule jobNumbersToSchedule() {
+        return jobNumbers.toSchedule();
+    }
+
+    @Benchmark
+    public Schedule resourceOrderToSchedule() {
+        return resourceOrder.toSchedule();
+    }
+
+    @Benchmark
+    public ResourceOrder resourceOrderCopy() {
+        return resourceOrder.copy();
+    }
+
+    @Benchmark
+    public boolean scheduleIsValid() {
+        return schedule.isValid();
+    }
+
+    @Benchmark
+    public int scheduleMakespan() {
+        return schedule.makespan();
+    }
+
+    @Benchmark
+    public List<Task> scheduleCriticalPath() {
+        return schedule.criticalPath();
+    }
+}
@@ -0,0 +1,76 @@
+package jobshop.solvers;
+
+import jobshop.BenchmarkInstances;
+import jobshop.Instance;
+import jobshop.Schedule;
+import jobshop.encodings.ResourceOrder;
+import jobshop.solvers.DescentSolver.Block;
+import jobshop.solvers.DescentSolver.Swap;
+import jobshop.solvers.GreedySolver.Priorite;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Throughput of one step of the local search solvers : finding the blocks of the critical path
+ * and evaluating the whole neighborhood of a solution (the EST_LRPT greedy solution of the instance). */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class NeighborhoodBenchmark {
+
+    @Param({"ft10", "la21", "abz7", "ta51", "gen100x20", "gen500x20"})
+    public String instanceName;
+
+    private ResourceOrder order;
+    private List<Swap> swaps;
+    private HeadTailEvaluator evaluator;
+
+    @Setup
+    public void setup() throws IOException {
+        Instance instance = BenchmarkInstances.get(instanceName);
+        order = new ResourceOrder(new GreedySolver(Priorite.EST_LRPT).solve(instance, Long.MAX_VALUE).schedule);
+
+        swaps = new ArrayList<>();
+        for(Block block : DescentSolver.blocksOfCriticalPath(order)) {
+            swaps.addAll(DescentSolver.neighbors(block));
+        }
+        evaluator = new HeadTailEvaluator(instance);
+    }
+
+    @Benchmark
+    public List<Block> blocksOfCriticalPath() {
+        return DescentSolver.blocksOfCriticalPath(order);
+    }
+
+    /** Evaluation used by the solvers : heads and tails of the solution, then one estimate per neighbor. */
+    @Benchmark
+    public int neighborhoodEstimates() {
+        evaluator.load(order);
+        int best = Integer.MAX_VALUE;
+        for(Swap swap : swaps) {
+            best = Math.min(best, evaluator.estimate(swap, order));
+        }
+        return best;
+    }
+
+    /** Exact evaluation of every neighbor by building its schedule. */
+    @Benchmark
+    public int neighborhoodSchedules() {
+        int best = Integer.MAX_VALUE;
+        for(Swap swap : swaps) {
+            ResourceOrder neighbor = order.copy();
+            swap.applyOn(neighbor);
+            Schedule schedule = neighbor.toSchedule();
+            if(schedule != null && schedule.isValid()) {
+                best = Math.min(best, schedule.makespan());
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,14 @@
+package jobshop;
+
+/** A solver that can be observed and stopped while it runs (see SearchControl). */
+public interface AnytimeSolver extends Solver {
+
+    /** Solves the instance, publishing each new best solution in the control,
+     * until the deadline or until the control is cancelled. */
+    Result solve(Instance instance, long deadline, SearchControl control);
+
+    @Override
+    default Result solve(Instance instance, long deadline) {
+        return solve(instance, deadline, new SearchControl());
+    }
+}
@@ -0,0 +1,241 @@
+package jobshop;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import jobshop.encodings.ResourceOrder;
+
+/** Binary files of instances and solutions.
+ *
+ * A file is a sequence of little-endian ints :
+ * - a header : MAGIC, VERSION, the kind of content (KIND_INSTANCE, KIND_RESOURCE_ORDER or KIND_SCHEDULE),
+ *   numJobs and numMachines ;
+ * - for an instance : the machines of the tasks, then their durations, both indexed by task id
+ *   (job * numTasks + task) ;
+ * - for a resource order : for each machine, the ids of its tasks in their order of execution
+ *   (-1 for the empty slots of a partial order) ;
+ * - for a schedule : the start times of the tasks, indexed by task id.
+ *
+ * A solution file does not contain its instance : it is read for an instance with the same size.
+ *
+ * Files are written through a memory mapping, and read in one call then decoded with bulk copies : an Instance
+ * holds its own arrays, so mapping the file for reading would not save the copy. An instance file is checked as a
+ * text file is by InstanceReader (machines in range, no negative duration), and each job must visit every
+ * machine exactly once.
+ *
+ * Usage as a converter between the text format (see InstanceReader) and this format :
+ *   BinaryFormat to-binary TEXT_FILE BINARY_FILE [INSTANCE_NAME]
+ *   BinaryFormat to-text BINARY_FILE TEXT_FILE [INSTANCE_NAME]
+ */
+public final class BinaryFormat {
+
+    /** "JSPB" */
+    public static final int MAGIC = 0x4A535042;
+    public static final int VERSION = 1;
+
+    public static final int KIND_INSTANCE = 1;
+    public static final int KIND_RESOURCE_ORDER = 2;
+    public static final int KIND_SCHEDULE = 3;
+
+    private static final int HEADER_INTS = 5;
+
+    private BinaryFormat() {}
+
+    /** True if the file starts with MAGIC. */
+    public static boolean isBinary(Path path) throws IOException {
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer start = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+            while(start.hasRemaining() && file.read(start) > 0) {
+                // a file shorter than 4 bytes is not binary
+            }
+            return !start.hasRemaining() && start.getInt(0) == MAGIC;
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // instances
+
+    public static void write(Instance instance, Path path) throws IOException {
+        int size = instance.numJobs * instance.numTasks;
+        IntBuffer out = create(path, KIND_INSTANCE, instance.numJobs, instance.numMachines, 2 * size);
+        for(int job = 0 ; job < instance.numJobs ; job++)
+            out.put(instance.machines[job]);
+        for(int job = 0 ; job < instance.numJobs ; job++)
+            out.put(instance.durations[job]);
+    }
+
+    public static Instance readInstance(Path path) throws IOException {
+        IntBuffer in = open(path, KIND_INSTANCE);
+        checkLength(path, in, 2L * in.get(3) * in.get(4));
+        Instance pb = new Instance(in.get(3), in.get(4));
+        in.position(HEADER_INTS);
+        for(int job = 0 ; job < pb.numJobs ; job++)
+            in.get(pb.machines[job]);
+        for(int job = 0 ; job < pb.numJobs ; job++)
+            in.get(pb.durations[job]);
+        // a job has as many tasks as there are machines : it visits each one exactly once if it never visits one twice
+        boolean[] visited = new boolean[pb.numMachines];
+        for(int job = 0 ; job < pb.numJobs ; job++) {
+            Arrays.fill(visited, false);
+            for(int task = 0 ; task < pb.numTasks ; task++) {
+                int machine = pb.machines[job][task];
+                if(machine < 0 || machine >= pb.numMachines)
+                    throw new IOException(path + ": machine " + machine + " out of range [0, " + (pb.numMachines - 1) + "]");
+                if(visited[machine])
+                    throw new IOException(path + ": job " + job + " visits machine " + machine + " twice");
+                visited[machine] = true;
+                if(pb.durations[job][task] < 0)
+                    throw new IOException(path + ": negative duration " + pb.durations[job][task] + " for task " + task + " of job " + job);
+            }
+        }
+        pb.computeIndexes();
+        return pb;
+    }
+
+    // ------------------------------------------------------------------
+    // solutions
+
+    public static void write(ResourceOrder order, Path path) throws IOException {
+        Instance pb = order.instance;
+        IntBuffer out = create(path, KIND_RESOURCE_ORDER, pb.numJobs, pb.numMachines, pb.numMachines * pb.numJobs);
+        for(int m = 0 ; m < pb.numMachines ; m++) {
+            for(int i = 0 ; i < pb.numJobs ; i++)
+                out.put(order.taskId(m, i));
+        }
+    }
+
+    public static ResourceOrder readResourceOrder(Instance instance, Path path) throws IOException {
+        IntBuffer in = open(path, KIND_RESOURCE_ORDER);
+        checkSize(path, in, instance);
+        checkLength(path, in, (long) instance.numMachines * instance.numJobs);
+        in.position(HEADER_INTS);
+        ResourceOrder order = new ResourceOrder(instance);
+        for(int m = 0 ; m < instance.numMachines ; m++) {
+            for(int i = 0 ; i < instance.numJobs ; i++) {
+                int id = in.get();
+                if(id == -1)
+                    continue;
+                int job = id / instance.numTasks;
+                int task = id % instance.numTasks;
+                if(id < 0 || job >= instance.numJobs || instance.machine(job, task) != m)
+                    throw new IOException(path + ": task " + id + " is not executed on machine " + m);
+                order.addTask(m, job, task);
+            }
+        }
+        return order;
+    }
+
+    public static void write(Schedule schedule, Path path) throws IOException {
+        Instance pb = schedule.pb;
+        IntBuffer out = create(path, KIND_SCHEDULE, pb.numJobs, pb.numMachines, pb.numJobs * pb.numTasks);
+        for(int job = 0 ; job < pb.numJobs ; job++)
+            out.put(schedule.times[job]);
+    }
+
+    public static Schedule readSchedule(Instance instance, Path path) throws IOException {
+        IntBuffer in = open(path, KIND_SCHEDULE);
+        checkSize(path, in, instance);
+        checkLength(path, in, (long) instance.numJobs * instance.numTasks);
+        in.position(HEADER_INTS);
+        int[][] times = new int[instance.numJobs][instance.numTasks];
+        for(int job = 0 ; job < instance.numJobs ; job++)
+            in.get(times[job]);
+        return new Schedule(instance, times);
+    }
+
+    // ------------------------------------------------------------------
+
+    /** Creates the file with its header, and maps it : the content is written in the returned buffer. */
+    private static IntBuffer create(Path path, int kind, int numJobs, int numMachines, int length) throws IOException {
+        long bytes = 4L * (HEADER_INTS + length);
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            IntBuffer out = file.map(FileChannel.MapMode.READ_WRITE, 0, bytes).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+            out.put(MAGIC).put(VERSION).put(kind).put(numJobs).put(numMachines);
+            return out;
+        }
+    }
+
+    /** Reads the file and checks its header. */
+    private static IntBuffer open(Path path, int kind) throws IOException {
+        byte[] bytes = Files.readAllBytes(path);
+        if(bytes.length < 4 * HEADER_INTS)
+            throw new IOException(path + ": not a binary jobshop file");
+        if(bytes.length % 4 != 0)
+            throw new IOException(path + ": truncated or corrupted file");
+        IntBuffer in = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        if(in.get(0) != MAGIC)
+            throw new IOException(path + ": not a binary jobshop file");
+        if(in.get(1) != VERSION)
+            throw new IOException(path + ": unsupported version " + in.get(1));
+        if(in.get(2) != kind)
+            throw new IOException(path + ": expected content of kind " + kind + ", found " + in.get(2));
+        if(in.get(3) < 0 || in.get(4) < 0)
+            throw new IOException(path + ": negative size");
+        return in;
+    }
+
+    private static void checkSize(Path path, IntBuffer in, Instance instance) throws IOException {
+        if(in.get(3) != instance.numJobs || in.get(4) != instance.numMachines)
+            throw new IOException(path + ": solution of a " + in.get(3) + "x" + in.get(4) + " instance, expected "
+                    + instance.numJobs + "x" + instance.numMachines);
+    }
+
+    private static void checkLength(Path path, IntBuffer in, long length) throws IOException {
+        if(in.limit() != HEADER_INTS + length)
+            throw new IOException(path + ": truncated or corrupted file");
+    }
+
+    /** Writes the instance in the text format of this repository. */
+    static void writeText(Instance instance, String name, Path path) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(path))) {
+            out.println("# instance " + name);
+            out.println(instance.numJobs + " " + instance.numMachines);
+            StringBuilder line = new StringBuilder();
+            for(int job = 0 ; job < instance.numJobs ; job++) {
+                line.setLength(0);
+                for(int task = 0 ; task < instance.numTasks ; task++) {
+                    if(task > 0)
+                        line.append(' ');
+                    line.append(instance.machine(job, task)).append(' ').append(instance.duration(job, task));
+                }
+                out.println(line);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if(args.length < 3 || !(args[0].equals("to-binary") || args[0].equals("to-text"))) {
+            System.err.println("usage: BinaryFormat to-binary TEXT_FILE BINARY_FILE [INSTANCE_NAME]");
+            System.err.println("       BinaryFormat to-text BINARY_FILE TEXT_FILE [INSTANCE_NAME]");
+            System.exit(1);
+        }
+        Path input = Paths.get(args[1]);
+        Path output = Paths.get(args[2]);
+        if(args[0].equals("to-binary")) {
+            Instance instance = null;
+            try (InstanceReader reader = InstanceReader.open(input)) {
+                InstanceReader.Entry entry;
+                while(instance == null && (entry = reader.next()) != null) {
+                    if(args.length < 4 || entry.name.equals(args[3]))
+                        instance = entry.instance;
+                }
+            }
+            if(instance == null)
+                throw new IOException(input + ": no instance" + (args.length < 4 ? "" : " named " + args[3]));
+            write(instance, output);
+        } else {
+            String name = args.length < 4 ? input.getFileName().toString() : args[3];
+            writeText(readInstance(input), name, output);
+        }
+    }
+}
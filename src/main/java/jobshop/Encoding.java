@@ -9,4 +9,11 @@ public abstract class Encoding {
     }
 
     public abstract Schedule toSchedule();
+
+    /** Makespan of the schedule of this solution (Integer.MAX_VALUE if there is none).
+     * Encodings override it to compute the makespan without building the schedule. */
+    public int makespan() {
+        Schedule schedule = toSchedule();
+        return schedule == null ? Integer.MAX_VALUE : schedule.makespan();
+    }
 }
@@ -3,11 +3,8 @@ package jobshop;
 import jobshop.encodings.Task;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Iterator;
-import java.util.Scanner;
-import java.util.stream.Collectors;
+import java.util.Arrays;
 
 public class Instance {
 
@@ -23,6 +20,17 @@ public class Instance {
     final int[][] durations;
     final int[][] machines;
 
+    // tables computed once the instance is loaded (see computeIndexes())
+
+    /** taskOfMachine[job][machine] : index of the task of the job that uses the machine */
+    private final int[][] taskOfMachine;
+    /** remainingWork[job][task] : sum of the durations of the tasks of the job, from task to the last one */
+    private final int[][] remainingWork;
+    /** machineLoad[machine] : sum of the durations of all tasks executed on the machine */
+    private final int[] machineLoad;
+    /** lower bound of the makespan, computed on first use (-1 until then) */
+    private volatile int lowerBound = -1;
+
     public int duration(int job, int task) {
         return durations[job][task];
     }
@@ -38,11 +46,32 @@ public class Instance {
 
     /** among the tasks of the given job, returns the task index that uses the given machine. */
     public int task_with_machine(int job, int wanted_machine) {
-        for(int task = 0 ; task < numTasks ; task++) {
-            if(machine(job, task) == wanted_machine)
-                return task;
-        }
-        throw new RuntimeException("No task targeting machine "+wanted_machine+" on job "+job);
+        int task = taskOfMachine[job][wanted_machine];
+        if(task == -1)
+            throw new RuntimeException("No task targeting machine "+wanted_machine+" on job "+job);
+        return task;
+    }
+
+    /** Sum of the durations of the given task and of all the tasks following it in its job. */
+    public int remainingWork(int job, int task) {
+        return remainingWork[job][task];
+    }
+
+    /** Sum of the durations of all the tasks of the job. */
+    public int jobLoad(int job) {
+        return remainingWork[job][0];
+    }
+
+    /** Sum of the durations of all the tasks executed on the machine. */
+    public int machineLoad(int machine) {
+        return machineLoad[machine];
+    }
+
+    /** Lower bound of the makespan of any solution (see LowerBound), computed once. */
+    public int lowerBound() {
+        if(lowerBound == -1)
+            lowerBound = LowerBound.of(this);
+        return lowerBound;
     }
 
     Instance(int numJobs, int numTasks) {
@@ -52,28 +81,32 @@ public class Instance {
 
         durations = new int[numJobs][numTasks];
         machines = new int[numJobs][numTasks];
+
+        taskOfMachine = new int[numJobs][numMachines];
+        remainingWork = new int[numJobs][numTasks];
+        machineLoad = new int[numMachines];
     }
 
-    /** Parses a instance from a file. */
-    public static Instance fromFile(Path path) throws IOException {
-        Iterator<String> lines = Files.readAllLines(path).stream()
-                .filter(l -> !l.startsWith("#"))
-                .collect(Collectors.toList())
-                .iterator();
-
-        Scanner header = new Scanner(lines.next());
-        int num_jobs = header.nextInt();
-        int num_tasks = header.nextInt();
-        Instance pb = new Instance(num_jobs, num_tasks);
-
-        for(int job = 0 ; job<num_jobs ; job++) {
-            Scanner line = new Scanner(lines.next());
-            for(int task = 0 ; task < num_tasks ; task++) {
-                pb.machines[job][task] = line.nextInt();
-                pb.durations[job][task] = line.nextInt();
+    /** Builds the lookup tables of the instance, must be called once durations and machines are set. */
+    void computeIndexes() {
+        Arrays.fill(machineLoad, 0);
+        for(int job = 0 ; job < numJobs ; job++) {
+            Arrays.fill(taskOfMachine[job], -1);
+            int remaining = 0;
+            for(int task = numTasks - 1 ; task >= 0 ; task--) {
+                taskOfMachine[job][machines[job][task]] = task;
+                remaining += durations[job][task];
+                remainingWork[job][task] = remaining;
+                machineLoad[machines[job][task]] += durations[job][task];
             }
         }
+    }
 
-        return pb;
+    /** Parses a instance from a file (the first one if the file contains several instances, see InstanceReader),
+     * or reads it if it is a binary file (see BinaryFormat). */
+    public static Instance fromFile(Path path) throws IOException {
+        if(BinaryFormat.isBinary(path))
+            return BinaryFormat.readInstance(path);
+        return InstanceReader.read(path);
     }
 }
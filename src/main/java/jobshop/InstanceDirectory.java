@@ -0,0 +1,76 @@
+package jobshop;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/** A directory of instance files, loaded lazily : a file is only parsed when one of its instances is asked for.
+ *
+ * The instance NAME is the first instance of the file NAME if it exists. Otherwise it is looked for in the other
+ * files (in the order of their names), which may contain several instances (OR-Library, Taillard, see InstanceReader).
+ * All the instances of a parsed file are kept, so each file is parsed at most once.
+ * A binary instance file (see BinaryFormat) contains the instance named after the file.
+ */
+public class InstanceDirectory {
+
+    private final Path directory;
+
+    /** instances of the files parsed so far, by name */
+    private final Map<String, Instance> loaded = new HashMap<>();
+    /** files not parsed yet, null until the directory is listed */
+    private List<Path> unparsed;
+
+    public InstanceDirectory(Path directory) {
+        this.directory = directory;
+    }
+
+    /** The instance with this name. */
+    public synchronized Instance get(String name) throws IOException {
+        Instance instance = loaded.get(name);
+        if(instance != null)
+            return instance;
+
+        if(unparsed == null) {
+            try (Stream<Path> files = Files.list(directory)) {
+                unparsed = files.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+            }
+        }
+        // the file with the same name first
+        List<Path> candidates = new ArrayList<>(unparsed);
+        Path file = directory.resolve(name);
+        if(candidates.remove(file))
+            candidates.add(0, file);
+
+        for(Path candidate : candidates) {
+            parse(candidate);
+            instance = loaded.get(name);
+            if(instance != null)
+                return instance;
+        }
+        throw new NoSuchFileException(file.toString(), null, "no instance named " + name + " in " + directory);
+    }
+
+    private void parse(Path file) throws IOException {
+        unparsed.remove(file);
+        if(BinaryFormat.isBinary(file)) {
+            loaded.put(file.getFileName().toString(), BinaryFormat.readInstance(file));
+            return;
+        }
+        try (InstanceReader reader = InstanceReader.open(file)) {
+            InstanceReader.Entry entry = reader.next();
+            if(entry != null)
+                loaded.put(file.getFileName().toString(), entry.instance);
+            while(entry != null) {
+                loaded.putIfAbsent(entry.name, entry.instance);
+                entry = reader.next();
+            }
+        }
+    }
+}
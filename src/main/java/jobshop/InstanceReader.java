@@ -0,0 +1,250 @@
+package jobshop;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/** Streaming reader of instance files, one instance at a time.
+ *
+ * Understood formats, possibly mixed in a file that contains several instances :
+ * - the format of this repository and of the OR-Library : a line "numJobs numMachines", then for each job
+ *   the pairs "machine duration" of its tasks (machines numbered from 0) ;
+ * - Taillard's format : a line starting with "numJobs numMachines" (possibly followed by the seeds and bounds),
+ *   then a text line ("Times") and the matrix of the durations, then a text line ("Machines") and the matrix of the
+ *   machines (numbered from 1), one line per job.
+ *
+ * Any other text line is ignored (descriptions, "+++" separators, '#' comments), except a line "instance NAME"
+ * (possibly after a '#'), which names the next instance. The k-th unnamed instance of a source is named after the
+ * source, with the suffix "-k" from the second one on.
+ *
+ * Files are memory-mapped, other streams are read through a buffer : the bytes are parsed directly, without
+ * building strings or Scanners except for the text lines.
+ */
+public final class InstanceReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /** An instance and its name. */
+    public static final class Entry {
+        public final String name;
+        public final Instance instance;
+
+        Entry(String name, Instance instance) {
+            this.name = name;
+            this.instance = instance;
+        }
+    }
+
+    /** name of the source, for the error messages and the unnamed instances */
+    private final String source;
+    /** null if the whole source is in the buffer (memory-mapped file) */
+    private final ReadableByteChannel channel;
+    private ByteBuffer buffer;
+
+    private int unnamed;
+
+    /** Reads the instances of a file, memory-mapped. */
+    public static InstanceReader open(Path path) throws IOException {
+        String source = path.getFileName().toString();
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ)) {
+            if(file.size() <= Integer.MAX_VALUE) {
+                // the mapping stays valid once the channel is closed
+                return new InstanceReader(source, null, file.map(FileChannel.MapMode.READ_ONLY, 0, file.size()));
+            }
+        }
+        return new InstanceReader(Channels.newInputStream(FileChannel.open(path, StandardOpenOption.READ)), source);
+    }
+
+    /** Reads the instances of a stream, which is closed with this reader. */
+    public InstanceReader(InputStream in, String source) {
+        this(source, Channels.newChannel(in), emptyBuffer());
+    }
+
+    private static ByteBuffer emptyBuffer() {
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        buffer.limit(0);
+        return buffer;
+    }
+
+    private InstanceReader(String source, ReadableByteChannel channel, ByteBuffer buffer) {
+        this.source = source;
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+
+    /** Reads the first instance of a file. */
+    public static Instance read(Path path) throws IOException {
+        try (InstanceReader reader = open(path)) {
+            Entry entry = reader.next();
+            if(entry == null)
+                throw new IOException(path + ": no instance in the file");
+            return entry.instance;
+        }
+    }
+
+    /** Parses the next instance, or returns null at the end of the source. */
+    public Entry next() throws IOException {
+        String name = null;
+        while(true) {
+            skipSpaces();
+            int c = peek();
+            if(c == -1)
+                return null;
+            if(c == '\n') {
+                skip();
+            } else if(isDigit(c)) {
+                Instance instance = parseInstance();
+                if(name == null) {
+                    unnamed++;
+                    name = unnamed == 1 ? source : source + "-" + unnamed;
+                }
+                return new Entry(name, instance);
+            } else {
+                String line = readLine();
+                if(line.startsWith("#"))
+                    line = line.substring(1).trim();
+                if(line.startsWith("instance ") || line.startsWith("instance\t"))
+                    name = line.substring("instance".length()).trim();
+            }
+        }
+    }
+
+    /** Parses an instance, from its header line. */
+    private Instance parseInstance() throws IOException {
+        int numJobs = nextInt();
+        skipSpaces();
+        if(!isDigit(peek()))
+            throw error("expected the number of machines after the number of jobs");
+        int numMachines = nextInt();
+        // rest of the header line : seeds and bounds of Taillard's format
+        readLine();
+        Instance pb = new Instance(numJobs, numMachines);
+
+        skipWhitespace();
+        if(isDigit(peek())) {
+            for(int job = 0 ; job < numJobs ; job++) {
+                for(int task = 0 ; task < numMachines ; task++) {
+                    pb.machines[job][task] = machine(nextInt(), 0, numMachines);
+                    pb.durations[job][task] = nextInt();
+                }
+            }
+        } else {
+            // Taillard's format
+            readLine();
+            for(int job = 0 ; job < numJobs ; job++) {
+                for(int task = 0 ; task < numMachines ; task++) {
+                    pb.durations[job][task] = nextInt();
+                }
+            }
+            skipWhitespace();
+            if(!isDigit(peek()))
+                readLine();
+            for(int job = 0 ; job < numJobs ; job++) {
+                for(int task = 0 ; task < numMachines ; task++) {
+                    pb.machines[job][task] = machine(nextInt(), 1, numMachines);
+                }
+            }
+        }
+        pb.computeIndexes();
+        return pb;
+    }
+
+    private int machine(int value, int first, int numMachines) throws IOException {
+        if(value < first || value >= first + numMachines)
+            throw error("machine " + value + " out of range [" + first + ", " + (first + numMachines - 1) + "]");
+        return value - first;
+    }
+
+    private IOException error(String message) {
+        return new IOException(source + ": " + message);
+    }
+
+    // ------------------------------------------------------------------
+    // tokenizer
+
+    private static boolean isDigit(int c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /** Next byte, without consuming it, or -1 at the end of the source. */
+    private int peek() throws IOException {
+        if(!buffer.hasRemaining() && !fill())
+            return -1;
+        return buffer.get(buffer.position()) & 0xff;
+    }
+
+    private void skip() {
+        buffer.position(buffer.position() + 1);
+    }
+
+    private boolean fill() throws IOException {
+        if(channel == null)
+            return false;
+        buffer.clear();
+        int n;
+        do {
+            n = channel.read(buffer);
+        } while(n == 0);
+        buffer.flip();
+        return n > 0;
+    }
+
+    /** Skips the blanks of the current line. */
+    private void skipSpaces() throws IOException {
+        int c = peek();
+        while(c == ' ' || c == '\t' || c == '\r') {
+            skip();
+            c = peek();
+        }
+    }
+
+    /** Skips the blanks and the line breaks. */
+    private void skipWhitespace() throws IOException {
+        int c = peek();
+        while(c == ' ' || c == '\t' || c == '\r' || c == '\n') {
+            skip();
+            c = peek();
+        }
+    }
+
+    private int nextInt() throws IOException {
+        skipWhitespace();
+        int c = peek();
+        if(!isDigit(c))
+            throw error(c == -1 ? "unexpected end of the instance" : "expected an integer, found '" + (char) c + "'");
+        int value = 0;
+        do {
+            value = value * 10 + (c - '0');
+            skip();
+            c = peek();
+        } while(isDigit(c));
+        return value;
+    }
+
+    /** Rest of the current line (trimmed), the line break is consumed. */
+    private String readLine() throws IOException {
+        StringBuilder line = new StringBuilder();
+        int c = peek();
+        while(c != -1 && c != '\n') {
+            line.append((char) c);
+            skip();
+            c = peek();
+        }
+        if(c == '\n')
+            skip();
+        return line.toString().trim();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if(channel != null)
+            channel.close();
+        buffer = null;
+    }
+}
@@ -0,0 +1,105 @@
+package jobshop;
+
+/** Lower bounds of the makespan of an instance.
+ *
+ * A solver whose makespan reaches the bound knows that its solution is optimal and can stop
+ * (see Instance.lowerBound(), computed once per instance).
+ */
+public class LowerBound {
+
+    /** Best of all the bounds below. */
+    public static int of(Instance instance) {
+        return Math.max(jobBound(instance), jacksonBound(instance));
+    }
+
+    /** A job cannot end before the sum of the durations of its tasks. */
+    public static int jobBound(Instance instance) {
+        int bound = 0;
+        for(int job = 0 ; job < instance.numJobs ; job++) {
+            bound = Math.max(bound, instance.jobLoad(job));
+        }
+        return bound;
+    }
+
+    /** A machine cannot end before the sum of the durations of its tasks. */
+    public static int machineBound(Instance instance) {
+        int bound = 0;
+        for(int m = 0 ; m < instance.numMachines ; m++) {
+            bound = Math.max(bound, instance.machineLoad(m));
+        }
+        return bound;
+    }
+
+    /** One-machine relaxation : every machine is considered alone, each task being available at its head
+     * (the durations of the tasks before it in its job) and followed by its tail (the durations of the tasks after it).
+     * The preemptive version of this problem is solved exactly by Jackson's rule (see oneMachinePreemptive()).
+     * Always at least as good as machineBound(). */
+    public static int jacksonBound(Instance instance) {
+        int numJobs = instance.numJobs;
+        int[] head = new int[numJobs];
+        int[] duration = new int[numJobs];
+        int[] tail = new int[numJobs];
+        int[] remaining = new int[numJobs];
+
+        int bound = 0;
+        for(int m = 0 ; m < instance.numMachines ; m++) {
+            // the task of each job on the machine m
+            for(int job = 0 ; job < numJobs ; job++) {
+                int task = instance.task_with_machine(job, m);
+                duration[job] = instance.duration(job, task);
+                head[job] = instance.jobLoad(job) - instance.remainingWork(job, task);
+                tail[job] = instance.remainingWork(job, task) - duration[job];
+            }
+            bound = Math.max(bound, oneMachinePreemptive(numJobs, head, duration, tail, remaining));
+        }
+        return bound;
+    }
+
+    /** Optimal value of the preemptive one-machine problem with heads and tails, on the n first tasks of the arrays :
+     * at any time, run the available task with the longest tail (Jackson's rule).
+     * The value is the greatest end time plus tail of a task. remaining is a scratch array of size at least n. */
+    public static int oneMachinePreemptive(int n, int[] head, int[] duration, int[] tail, int[] remaining) {
+        int time = Integer.MAX_VALUE;
+        int bound = 0;
+        int done = 0;
+        for(int i = 0 ; i < n ; i++) {
+            remaining[i] = duration[i];
+            time = Math.min(time, head[i]);
+            // a task without duration is never run by the loop below : it ends at its head
+            if(duration[i] == 0) {
+                done++;
+                bound = Math.max(bound, head[i] + tail[i]);
+            }
+        }
+
+        while(done < n) {
+            // available task with the longest tail, and next time a task becomes available
+            int best = -1;
+            int nextHead = Integer.MAX_VALUE;
+            for(int i = 0 ; i < n ; i++) {
+                if(remaining[i] == 0)
+                    continue;
+                if(head[i] <= time) {
+                    if(best == -1 || tail[i] > tail[best])
+                        best = i;
+                } else {
+                    nextHead = Math.min(nextHead, head[i]);
+                }
+            }
+            if(best == -1) {
+                time = nextHead;
+                continue;
+            }
+
+            // run it until it ends or a new task becomes available
+            int run = Math.min(remaining[best], nextHead - time);
+            time += run;
+            remaining[best] -= run;
+            if(remaining[best] == 0) {
+                done++;
+                bound = Math.max(bound, time + tail[best]);
+            }
+        }
+        return bound;
+    }
+}
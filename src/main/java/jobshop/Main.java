@@ -1,12 +1,15 @@
 package jobshop;
 
 import java.io.PrintStream;
-import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
 
 
 import jobshop.solvers.*;
@@ -19,18 +22,67 @@ import net.sourceforge.argparse4j.inf.Namespace;
 
 public class Main {
 
-    /** All solvers available in this program */
-    private static HashMap<String, Solver> solvers;
+    /** All solvers available in this program.
+     * Solvers keep state while solving, so a new one is created for each run. */
+    private static HashMap<String, Supplier<Solver>> solvers;
     static {
         solvers = new HashMap<>();
-        solvers.put("basic", new BasicSolver());
-        solvers.put("random", new RandomSolver());
-        solvers.put("greedy_spt", new GreedySolver(Priorite.SPT));
-        solvers.put("greedy_lrpt", new GreedySolver(Priorite.LRPT));
-        solvers.put("greedy_est_spt", new GreedySolver(Priorite.EST_SPT));
-        solvers.put("greedy_est_lrpt", new GreedySolver(Priorite.EST_LRPT));
-        solvers.put("descent", new DescentSolver());
-        solvers.put("taboo", new TabouSolver());
+        solvers.put("basic", () -> new BasicSolver());
+        solvers.put("random", () -> new RandomSolver());
+        solvers.put("greedy_spt", () -> new GreedySolver(Priorite.SPT));
+        solvers.put("greedy_lrpt", () -> new GreedySolver(Priorite.LRPT));
+        solvers.put("greedy_est_spt", () -> new GreedySolver(Priorite.EST_SPT));
+        solvers.put("greedy_est_lrpt", () -> new GreedySolver(Priorite.EST_LRPT));
+        solvers.put("greedy_lpt", () -> new GreedySolver(Priorite.LPT));
+        solvers.put("greedy_srpt", () -> new GreedySolver(Priorite.SRPT));
+        solvers.put("greedy_est_lpt", () -> new GreedySolver(Priorite.EST_LPT));
+        solvers.put("greedy_est_srpt", () -> new GreedySolver(Priorite.EST_SRPT));
+        solvers.put("grasp_est_spt", () -> new GraspSolver(Priorite.EST_SPT, 0.2, Runtime.getRuntime().availableProcessors()));
+        solvers.put("grasp_est_lrpt", () -> new GraspSolver(Priorite.EST_LRPT, 0.2, Runtime.getRuntime().availableProcessors()));
+        solvers.put("descent", () -> new DescentSolver());
+        solvers.put("taboo", () -> new TabouSolver());
+        solvers.put("taboo_par", () -> new TabouSolver(Runtime.getRuntime().availableProcessors()));
+        solvers.put("shifting_bottleneck", () -> new ShiftingBottleneckSolver());
+        solvers.put("descent_sb", () -> new DescentSolver(new ShiftingBottleneckSolver()));
+        solvers.put("taboo_sb", () -> new TabouSolver(new ShiftingBottleneckSolver(), 1));
+        solvers.put("genetic", () -> new GeneticSolver(Runtime.getRuntime().availableProcessors()));
+        solvers.put("bnb", () -> new BranchAndBoundSolver(Runtime.getRuntime().availableProcessors()));
+    }
+
+    /** Result of one solver on one instance, with the time it took. */
+    private static class Run {
+        final Result result;
+        /** runtime in milliseconds, measured with a monotonic clock */
+        final long runtime;
+
+        Run(Result result, long runtime) {
+            this.result = result;
+            this.runtime = runtime;
+        }
+
+        /** targetGap : if not null, an AnytimeSolver is stopped as soon as its distance to bestKnown
+         * (in percent) is lower or equal to this value. */
+        static Run solve(Solver solver, Instance instance, long solveTimeMs, Double targetGap, int bestKnown) {
+            long allocated = SolverMetrics.allocatedBytes();
+            long start = System.nanoTime();
+            long deadline = System.currentTimeMillis() + solveTimeMs;
+            Result result;
+            if(targetGap != null && solver instanceof AnytimeSolver) {
+                SearchControl control = new SearchControl();
+                control.addListener((schedule, makespan, elapsedMs) -> {
+                    if(100f * (makespan - bestKnown) / bestKnown <= targetGap)
+                        control.cancel();
+                });
+                result = ((AnytimeSolver) solver).solve(instance, deadline, control);
+            } else {
+                result = solver.solve(instance, deadline);
+            }
+            long runtime = (System.nanoTime() - start) / 1_000_000;
+            // the solver cannot measure its own call : the runtime and the allocations of this thread are added here
+            result.metrics.runtimeMs = runtime;
+            result.metrics.addAllocatedBytes(allocated < 0 ? -1 : SolverMetrics.allocatedBytes() - allocated);
+            return new Run(result, runtime);
+        }
     }
 
 
@@ -50,8 +102,24 @@ public class Main {
 
         parser.addArgument("--instance")
                 .nargs("+")
-                .required(true)
+                .setDefault(new ArrayList<String>())
                 .help("Instance(s) to solve (space separated if more than one)");
+        parser.addArgument("--generate")
+                .nargs("+")
+                .setDefault(new ArrayList<String>())
+                .help("Instance(s) to generate with Taillard's generator and solve, as JxM:seed or " +
+                        "JxM:timeSeed:machineSeed (e.g. 1000x20:42, or 15x15:840612802:398197754 for ta01)");
+        parser.addArgument("--parallel")
+                .setDefault(1)
+                .type(Integer.class)
+                .help("Number of (instance, solver) pairs solved at the same time");
+        parser.addArgument("--target-gap")
+                .type(Double.class)
+                .help("Stop a solver as soon as its distance to the best known result (in percent) is at most this value " +
+                        "(only for solvers that can be stopped early)");
+        parser.addArgument("--metrics")
+                .help("Write the metrics of every run (see SolverMetrics) to this file, " +
+                        "in JSON if its name ends with .json, in CSV otherwise");
 
         Namespace ns = null;
         try {
@@ -64,6 +132,9 @@ public class Main {
         PrintStream output = System.out;
 
         long solveTimeMs = ns.getLong("timeout") * 1000;
+        int numThreads = Math.max(1, ns.getInt("parallel"));
+        Double targetGap = ns.getDouble("target_gap");
+        String metricsFile = ns.getString("metrics");
 
         List<String> solversToTest = ns.getList("solver");
         for(String solverName : solversToTest) {
@@ -85,16 +156,31 @@ public class Main {
             }
             instances.addAll(matches);
         }
+        // generated instances are named after their description
+        HashMap<String, Instance> generated = new HashMap<>();
+        for(String spec : ns.<String>getList("generate")) {
+            try {
+                generated.put(spec, TaillardGenerator.generate(spec));
+            } catch (IllegalArgumentException e) {
+                System.err.println("ERROR: cannot generate \"" + spec + "\": " + e.getMessage());
+                System.exit(1);
+            }
+            instances.add(spec);
+        }
+        if(instances.isEmpty()) {
+            System.err.println("ERROR: no instance to solve, use --instance or --generate");
+            System.exit(1);
+        }
 
         float[] runtimes = new float[solversToTest.size()];
         float[] distances = new float[solversToTest.size()];
 
         try {
-            output.print(  "                         ");
+            output.print(  "                              ");
             for(String s : solversToTest)
                 output.printf("%-30s", s);
             output.println();
-            output.print("instance size  best      ");
+            output.print("instance size  best   lb      ");
             for(String s : solversToTest) {
                 output.print("runtime makespan ecart        ");
             }
@@ -102,23 +188,38 @@ public class Main {
 
             //---------------------------------------
             HashMap<String, ArrayList<String>> liste_resultats = new HashMap<String, ArrayList<String>>();
+            MetricsReport report = new MetricsReport();
             
+            // every (instance, solver) pair is submitted to the pool in the order of the table
+            ExecutorService pool = Executors.newFixedThreadPool(numThreads);
+            List<Instance> loadedInstances = new ArrayList<>();
+            List<List<Future<Run>>> runs = new ArrayList<>();
+            InstanceDirectory instanceFiles = new InstanceDirectory(Paths.get("instances/"));
             for(String instanceName : instances) {
-                int bestKnown = BestKnownResult.of(instanceName);
+                Instance instance = generated.containsKey(instanceName) ? generated.get(instanceName) : instanceFiles.get(instanceName);
+                loadedInstances.add(instance);
 
+                int bestKnown = bestKnown(instanceName, instance);
+                List<Future<Run>> instanceRuns = new ArrayList<>();
+                for(String solverName : solversToTest) {
+                    instanceRuns.add(pool.submit(() -> Run.solve(solvers.get(solverName).get(), instance, solveTimeMs, targetGap, bestKnown)));
+                }
+                runs.add(instanceRuns);
+            }
+            pool.shutdown();
 
-                Path path = Paths.get("instances/", instanceName);
-                Instance instance = Instance.fromFile(path);
+            // results are printed in the same order, as soon as they are available
+            for(int instanceId = 0 ; instanceId < instances.size() ; instanceId++) {
+                String instanceName = instances.get(instanceId);
+                Instance instance = loadedInstances.get(instanceId);
+                int bestKnown = bestKnown(instanceName, instance);
 
-                output.printf("%-8s %-5s %4d      ",instanceName, instance.numJobs +"x"+instance.numTasks, bestKnown);
+                output.printf("%-8s %-5s %4d %4d      ",instanceName, instance.numJobs +"x"+instance.numTasks, bestKnown, instance.lowerBound());
 
                 for(int solverId = 0 ; solverId < solversToTest.size() ; solverId++) {
-                    String solverName = solversToTest.get(solverId);
-                    Solver solver = solvers.get(solverName);
-                    long start = System.currentTimeMillis();
-                    long deadline = System.currentTimeMillis() + solveTimeMs;
-                    Result result = solver.solve(instance, deadline);
-                    long runtime = System.currentTimeMillis() - start;
+                    Run run = runs.get(instanceId).get(solverId).get();
+                    Result result = run.result;
+                    long runtime = run.runtime;
                     
                     //---------------------------------------
                     if(solverId == 0)
@@ -135,8 +236,9 @@ public class Main {
                     }
                     
 
-                    if(!result.schedule.isValid()) {
-                        System.err.println("ERROR: solver returned an invalid schedule");
+                    String violation = result.schedule.firstViolation();
+                    if(violation != null) {
+                        System.err.println("ERROR: solver returned an invalid schedule (" + violation + ")");
                         System.exit(1);
                     }
 
@@ -148,6 +250,7 @@ public class Main {
 
                     output.printf("%7d %8s %5.1f        ", runtime, makespan, dist);
                     output.flush();
+                    report.add(instanceName, solversToTest.get(solverId), result);
                 }
                 output.println();
 
@@ -155,10 +258,12 @@ public class Main {
             
             
 
-            output.printf("%-8s %-5s %4s      ", "AVG", "-", "-");
+            output.printf("%-8s %-5s %4s %4s      ", "AVG", "-", "-", "-");
             for(int solverId = 0 ; solverId < solversToTest.size() ; solverId++) {
                 output.printf("%7.1f %8s %5.1f        ", runtimes[solverId], "-", distances[solverId]);
             }
+            if(metricsFile != null)
+                report.write(Paths.get(metricsFile));
             
           //-----------------------------------
           /*
@@ -188,4 +293,9 @@ public class Main {
             System.exit(1);
         }
     }
+
+    /** Best known makespan of the instance, or its lower bound for the generated instances. */
+    private static int bestKnown(String instanceName, Instance instance) {
+        return BestKnownResult.isKnown(instanceName) ? BestKnownResult.of(instanceName) : instance.lowerBound();
+    }
 }
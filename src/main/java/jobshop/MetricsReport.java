@@ -0,0 +1,115 @@
+package jobshop;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/** Metrics of a series of runs (one line per (instance, solver) pair), written as CSV or JSON.
+ *
+ * The CSV file has one column per field of SolverMetrics, and a last column with the solver-specific values
+ * as "name=value" pairs separated by ';'. The JSON file is an array of objects, with the solver-specific
+ * values in a nested "extra" object.
+ */
+class MetricsReport {
+
+    private static final String[] COLUMNS = {
+            "instance", "solver", "makespan", "cause", "runtime_ms", "iterations", "neighbors", "neighbors_per_s",
+            "decodes", "invalid", "restarts", "last_improvement_ms", "allocated_bytes", "threads", "extra"
+    };
+
+    private static class Line {
+        final String instance;
+        final String solver;
+        final Result result;
+
+        Line(String instance, String solver, Result result) {
+            this.instance = instance;
+            this.solver = solver;
+            this.result = result;
+        }
+
+        /** Values of the columns before "extra" (the strings are quoted by the writers). */
+        Object[] values() {
+            SolverMetrics m = result.metrics;
+            return new Object[] {
+                    instance, solver, result.schedule.makespan(), result.cause.toString(), m.runtimeMs, m.iterations,
+                    m.neighbors, Math.round(m.neighborsPerSecond()), m.decodes, m.invalid,
+                    m.restarts, m.lastImprovementMs, m.allocatedBytes, m.threads
+            };
+        }
+    }
+
+    private final List<Line> lines = new ArrayList<>();
+
+    void add(String instance, String solver, Result result) {
+        lines.add(new Line(instance, solver, result));
+    }
+
+    /** Writes the lines in JSON if the file name ends with ".json", in CSV otherwise. */
+    void write(Path path) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(path))) {
+            if(path.getFileName().toString().endsWith(".json"))
+                writeJson(out);
+            else
+                writeCsv(out);
+        }
+    }
+
+    private void writeCsv(PrintWriter out) {
+        out.println(String.join(",", COLUMNS));
+        for(Line line : lines) {
+            StringBuilder row = new StringBuilder();
+            for(Object value : line.values()) {
+                row.append(value instanceof String ? csv((String) value) : value).append(',');
+            }
+            StringBuilder extra = new StringBuilder();
+            for(Map.Entry<String, Number> entry : line.result.metrics.extra().entrySet()) {
+                if(extra.length() > 0)
+                    extra.append(';');
+                extra.append(entry.getKey()).append('=').append(entry.getValue());
+            }
+            row.append(csv(extra.toString()));
+            out.println(row);
+        }
+    }
+
+    private void writeJson(PrintWriter out) {
+        out.println("[");
+        for(int l = 0 ; l < lines.size() ; l++) {
+            Line line = lines.get(l);
+            Object[] values = line.values();
+            StringBuilder object = new StringBuilder("  {");
+            for(int c = 0 ; c < values.length ; c++) {
+                Object value = values[c] instanceof String ? json((String) values[c]) : values[c];
+                object.append(json(COLUMNS[c])).append(": ").append(value).append(", ");
+            }
+            object.append(json("extra")).append(": {");
+            boolean first = true;
+            for(Map.Entry<String, Number> entry : line.result.metrics.extra().entrySet()) {
+                if(!first)
+                    object.append(", ");
+                object.append(json(entry.getKey())).append(": ").append(entry.getValue());
+                first = false;
+            }
+            object.append("}}");
+            if(l < lines.size() - 1)
+                object.append(',');
+            out.println(object);
+        }
+        out.println("]");
+    }
+
+    private static String csv(String value) {
+        if(value.indexOf(',') < 0 && value.indexOf('"') < 0)
+            return value;
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static String json(String value) {
+        return '"' + value.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+    }
+}
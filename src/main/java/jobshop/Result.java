@@ -5,18 +5,25 @@ import java.util.Optional;
 public class Result {
 
     public Result(Instance instance, Schedule schedule, ExitCause cause) {
+        this(instance, schedule, cause, new SolverMetrics());
+    }
+
+    public Result(Instance instance, Schedule schedule, ExitCause cause, SolverMetrics metrics) {
         this.instance = instance;
         this.schedule = schedule;
         this.cause = cause;
+        this.metrics = metrics;
     }
 
     public enum ExitCause {
-        Timeout, ProvedOptimal, Blocked
+        Timeout, ProvedOptimal, Blocked, Cancelled
     }
 
     public final Instance instance;
     public final Schedule schedule;
     public final ExitCause cause;
+    /** what the solver did to find this result */
+    public final SolverMetrics metrics;
 
 
 }
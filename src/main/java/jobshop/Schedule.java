@@ -12,13 +12,25 @@ public class Schedule
     // start times of each job and task
     // times[j][i] is the start time of task (j,i) : i^th task of the j^th job
     final int[][] times;
+    // for each task id (job * numTasks + task), the id of the task whose end time gave its start time :
+    // its predecessor on the job or on the machine (-1 if it starts at 0).
+    // null if the schedule was not built by a decoder.
+    final int[] predecessors;
+    // computed on the first call to makespan() (-1 until then), the schedule never changes
+    private int makespan = -1;
 
     public Schedule(Instance pb, int[][] times) {
+        this(pb, times, null);
+    }
+
+    /** Creates a schedule for which the decoder recorded the binding predecessor of each task (see predecessors). */
+    public Schedule(Instance pb, int[][] times, int[] predecessors) {
         this.pb = pb;
         this.times = new int[pb.numJobs][];
         for(int j = 0 ; j < pb.numJobs ; j++) {
             this.times[j] = Arrays.copyOf(times[j], pb.numTasks);
         }
+        this.predecessors = predecessors == null ? null : Arrays.copyOf(predecessors, pb.numJobs * pb.numTasks);
     }
 
     public int startTime(int job, int task) {
@@ -45,40 +57,70 @@ public class Schedule
 
     /** Returns true if this schedule is valid (no constraint is violated) */
     public boolean isValid() {
+        return firstViolation() == null;
+    }
+
+    /** Returns a description of the first violated constraint, or null if this schedule is valid.
+     *
+     * The tasks of each machine are sorted once by start time (then end time) and swept in that order :
+     * a task overlaps a previous one if it starts before the latest end time seen so far on the machine. */
+    public String firstViolation() {
         for(int j = 0 ; j<pb.numJobs ; j++) {
-            for(int t = 1 ; t<pb.numTasks ; t++) {
-                if(startTime(j, t-1) + pb.duration(j, t-1) > startTime(j, t))
-                    return false;
-            }
             for(int t = 0 ; t<pb.numTasks ; t++) {
                 if(startTime(j, t) < 0)
-                    return false;
+                    return "task " + new Task(j, t) + " starts at negative time " + startTime(j, t);
+            }
+            for(int t = 1 ; t<pb.numTasks ; t++) {
+                if(startTime(j, t-1) + pb.duration(j, t-1) > startTime(j, t))
+                    return "task " + new Task(j, t) + " starts at " + startTime(j, t)
+                            + " before the end of its job predecessor at " + (startTime(j, t-1) + pb.duration(j, t-1));
             }
         }
 
+        // start time in the high bits, end time in the low bits (both are non-negative)
+        long[] intervals = new long[pb.numJobs];
         for (int machine = 0 ; machine < pb.numMachines ; machine++) {
-            for(int j1=0 ; j1<pb.numJobs ; j1++) {
-                int t1 = pb.task_with_machine(j1, machine);
-                for(int j2=j1+1 ; j2<pb.numJobs ; j2++) {
-                    int t2 = pb.task_with_machine(j2, machine);
-
-                    boolean t1_first = startTime(j1, t1) + pb.duration(j1, t1) <= startTime(j2, t2);
-                    boolean t2_first = startTime(j2, t2) + pb.duration(j2, t2) <= startTime(j1, t1);
-
-                    if(!t1_first && !t2_first)
-                        return false;
+            for(int j = 0 ; j<pb.numJobs ; j++) {
+                Task t = new Task(j, pb.task_with_machine(j, machine));
+                intervals[j] = ((long) startTime(t) << 32) | endTime(t);
+            }
+            Arrays.sort(intervals);
+
+            long latest = intervals[0];
+            for(int i = 1 ; i < intervals.length ; i++) {
+                int start = (int) (intervals[i] >>> 32);
+                if(start < (int) latest) {
+                    Task first = taskWithInterval(machine, latest, -1);
+                    Task second = taskWithInterval(machine, intervals[i], first.job);
+                    return "tasks " + first + " and " + second + " overlap on machine " + machine;
                 }
+                if((int) intervals[i] > (int) latest)
+                    latest = intervals[i];
             }
         }
 
-        return true;
+        return null;
+    }
+
+    /** Task executed on the machine over the given interval (start in the high bits, end in the low bits),
+     * that does not belong to the excluded job. */
+    private Task taskWithInterval(int machine, long interval, int excludedJob) {
+        for(int j = 0 ; j<pb.numJobs ; j++) {
+            Task t = new Task(j, pb.task_with_machine(j, machine));
+            if(j != excludedJob && startTime(t) == (int) (interval >>> 32) && endTime(t) == (int) interval)
+                return t;
+        }
+        throw new IllegalStateException("No task on machine " + machine);
     }
 
     public int makespan() {
+        if(makespan != -1)
+            return makespan;
         int max = -1;
         for(int j = 0 ; j<pb.numJobs ; j++) {
             max = Math.max(max, startTime(j, pb.numTasks-1) + pb.duration(j, pb.numTasks -1));
         }
+        makespan = max;
         return max;
     }
 
@@ -104,7 +146,53 @@ public class Schedule
         return true;
     }
 
+    /** Writes the ids (job * numTasks + task) of the tasks of a critical path in the buffer, from the first
+     * to the last one, and returns the length of the path. The buffer must have room for all tasks.
+     * Runs in linear time, by following the predecessors recorded by the decoder. */
+    public int criticalPath(int[] buffer) {
+        if(predecessors == null) {
+            // no recorded predecessors : use the backward search
+            List<Task> path = criticalPath();
+            for(int i = 0 ; i < path.size() ; i++) {
+                buffer[i] = path.get(i).job * pb.numTasks + path.get(i).task;
+            }
+            return path.size();
+        }
+
+        // select task with greatest end time
+        int last = pb.numTasks - 1;
+        for(int j = 1 ; j < pb.numJobs ; j++) {
+            if(endTime(j, pb.numTasks-1) > endTime(last / pb.numTasks, pb.numTasks-1))
+                last = j * pb.numTasks + pb.numTasks - 1;
+        }
+
+        int length = 0;
+        for(int id = last ; id != -1 ; id = predecessors[id]) {
+            length++;
+        }
+        int i = length;
+        for(int id = last ; id != -1 ; id = predecessors[id]) {
+            buffer[--i] = id;
+        }
+        return length;
+    }
+
+    private int endTime(int job, int task) {
+        return startTime(job, task) + pb.duration(job, task);
+    }
+
     public List<Task> criticalPath() {
+        if(predecessors != null) {
+            int[] buffer = new int[pb.numJobs * pb.numTasks];
+            int length = criticalPath(buffer);
+            List<Task> path = new ArrayList<>(length);
+            for(int i = 0 ; i < length ; i++) {
+                path.add(new Task(buffer[i] / pb.numTasks, buffer[i] % pb.numTasks));
+            }
+            assert isCriticalPath(path);
+            return path;
+        }
+
         // select task with greatest end time
         Task ldd = IntStream.range(0, pb.numJobs)
                 .mapToObj(j -> new Task(j, pb.numTasks-1))
@@ -0,0 +1,75 @@
+package jobshop;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/** Shared state of a run of an AnytimeSolver.
+ *
+ * The solver publishes every new best solution (incumbent) it finds with offer() and polls shouldStop().
+ * Any other thread can read the current incumbent at any time, or stop the run with cancel() :
+ * the solver then returns its best solution as soon as possible, with ExitCause.Cancelled.
+ *
+ * Methods can be called from any thread.
+ */
+public class SearchControl {
+
+    /** Called each time a solver publishes a better solution. */
+    public interface IncumbentListener {
+        /** Called in the thread of the solver, so it should return quickly. */
+        void newIncumbent(Schedule schedule, int makespan, long elapsedMs);
+    }
+
+    private final List<IncumbentListener> listeners = new CopyOnWriteArrayList<>();
+    private final long start = System.nanoTime();
+
+    private volatile boolean cancelled = false;
+    private volatile Schedule incumbent = null;
+    private volatile int incumbentMakespan = Integer.MAX_VALUE;
+
+    public void addListener(IncumbentListener listener) {
+        listeners.add(listener);
+    }
+
+    /** Asks the solver to stop as soon as possible. */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /** True if the solver must stop : the run was cancelled or the deadline is reached. */
+    public boolean shouldStop(long deadline) {
+        return cancelled || System.currentTimeMillis() >= deadline;
+    }
+
+    /** Best solution published so far, null if none. */
+    public Schedule incumbent() {
+        return incumbent;
+    }
+
+    /** Makespan of the best solution published so far, Integer.MAX_VALUE if none. */
+    public int incumbentMakespan() {
+        return incumbentMakespan;
+    }
+
+    /** Publishes a solution. It becomes the incumbent (and the listeners are notified) only if it is better than
+     * the current one. Returns true if it is the case. */
+    public boolean offer(Schedule schedule) {
+        int makespan = schedule.makespan();
+        if(makespan >= incumbentMakespan)
+            return false;
+        synchronized (this) {
+            if(makespan >= incumbentMakespan)
+                return false;
+            incumbent = schedule;
+            incumbentMakespan = makespan;
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+            for(IncumbentListener listener : listeners) {
+                listener.newIncumbent(schedule, makespan, elapsedMs);
+            }
+        }
+        return true;
+    }
+}
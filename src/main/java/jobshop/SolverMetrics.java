@@ -0,0 +1,80 @@
+package jobshop;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/** What a solver did during one call to solve, returned with its Result.
+ *
+ * Each solver fills in the counters that make sense for it and leaves the other ones at 0 : a counter that stays at
+ * 0 for a search that runs until the deadline tells where the time went (e.g. many decodes but few iterations).
+ * The solvers that run on several threads sum the counters of their threads. Solver-specific values (cache hits,
+ * nodes of a tree, ...) go in extra().
+ *
+ * The runtime and the bytes allocated by the calling thread are added by the caller (see Main), since the solver
+ * cannot measure its own call.
+ */
+public class SolverMetrics {
+
+    /** iterations of the main loop : moves, generations, samples, constructions, nodes, ... */
+    public long iterations;
+    /** neighbors (or candidate solutions) evaluated, exactly or by an estimate */
+    public long neighbors;
+    /** complete evaluations of a solution (decoding, or loading in a HeadTailEvaluator) */
+    public long decodes;
+    /** neighbors that were not feasible solutions (cyclic resource orders) */
+    public long invalid;
+    /** restarts of the search from another solution */
+    public long restarts;
+    /** time of the last improvement of the best solution, in milliseconds since the start of solve (-1 if none) */
+    public long lastImprovementMs = -1;
+    /** bytes allocated by the threads of the solver, -1 if the JVM cannot measure them */
+    public long allocatedBytes;
+    /** number of threads whose allocated bytes were added */
+    public int threads;
+    /** wall-clock runtime of the call to solve, in milliseconds */
+    public long runtimeMs;
+
+    private final Map<String, Number> extra = new LinkedHashMap<>();
+
+    /** Records a solver-specific value. */
+    public void put(String name, Number value) {
+        extra.put(name, value);
+    }
+
+    /** Solver-specific values, in the order in which they were recorded. */
+    public Map<String, Number> extra() {
+        return extra;
+    }
+
+    public double neighborsPerSecond() {
+        return neighbors / Math.max(1e-3, runtimeMs / 1e3);
+    }
+
+    /** Adds the bytes allocated by one thread (see allocatedBytes()). */
+    public synchronized void addAllocatedBytes(long bytes) {
+        if(bytes < 0 || allocatedBytes < 0)
+            allocatedBytes = -1;
+        else
+            allocatedBytes += bytes;
+        threads++;
+    }
+
+    /** Total number of bytes allocated so far by the current thread, -1 if the JVM cannot measure it.
+     * The bytes allocated by a piece of code are the difference between two calls. */
+    public static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if(threads instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) threads;
+            if(bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled())
+                return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    /** Milliseconds elapsed since start, a System.nanoTime() value. */
+    public static long elapsedMs(long start) {
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+}
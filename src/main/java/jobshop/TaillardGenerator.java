@@ -0,0 +1,92 @@
+package jobshop;
+
+/** Generator of Taillard's job-shop instances (E. Taillard, Benchmarks for basic scheduling problems, 1993).
+ *
+ * The durations are drawn uniformly in [1, 99] with a first random stream, then the route of each job is a
+ * random permutation of the machines drawn with a second stream. Both streams are Taillard's linear congruential
+ * generator (x = 16807 x mod 2^31-1), so with the seeds of the paper the generated instances are exactly
+ * ta01 ... ta80 (e.g. 15x15 with the time seed 840612802 and the machine seed 398197754 is ta01).
+ * Any size can be generated, up to thousands of jobs.
+ */
+public final class TaillardGenerator {
+
+    private static final long M = 2147483647;
+    private static final long A = 16807;
+    // Schrage's decomposition of M : M = A * Q + R
+    private static final long Q = 127773;
+    private static final long R = 2836;
+
+    private TaillardGenerator() {}
+
+    /** Instance generated with the same seed for the durations and the machines. */
+    public static Instance generate(int numJobs, int numMachines, long seed) {
+        return generate(numJobs, numMachines, seed, seed);
+    }
+
+    public static Instance generate(int numJobs, int numMachines, long timeSeed, long machineSeed) {
+        if(numJobs <= 0 || numMachines <= 0)
+            throw new IllegalArgumentException("invalid size " + numJobs + "x" + numMachines);
+        Instance pb = new Instance(numJobs, numMachines);
+
+        Lcg times = new Lcg(timeSeed);
+        for(int job = 0 ; job < numJobs ; job++) {
+            for(int task = 0 ; task < numMachines ; task++) {
+                pb.durations[job][task] = times.next(1, 99);
+            }
+        }
+
+        Lcg machines = new Lcg(machineSeed);
+        for(int job = 0 ; job < numJobs ; job++) {
+            int[] route = pb.machines[job];
+            for(int task = 0 ; task < numMachines ; task++) {
+                route[task] = task;
+            }
+            for(int task = 0 ; task < numMachines ; task++) {
+                int other = machines.next(task, numMachines - 1);
+                int tmp = route[task];
+                route[task] = route[other];
+                route[other] = tmp;
+            }
+        }
+        pb.computeIndexes();
+        return pb;
+    }
+
+    /** Instance described by "JxM:seed" or "JxM:timeSeed:machineSeed" (e.g. "15x15:840612802:398197754"). */
+    public static Instance generate(String spec) {
+        String[] parts = spec.split(":");
+        String[] size = parts[0].split("x");
+        if(size.length != 2 || parts.length < 2 || parts.length > 3)
+            throw new IllegalArgumentException("expected JxM:seed or JxM:timeSeed:machineSeed, found \"" + spec + "\"");
+        try {
+            int numJobs = Integer.parseInt(size[0]);
+            int numMachines = Integer.parseInt(size[1]);
+            long timeSeed = Long.parseLong(parts[1]);
+            long machineSeed = parts.length == 3 ? Long.parseLong(parts[2]) : timeSeed;
+            return generate(numJobs, numMachines, timeSeed, machineSeed);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("expected JxM:seed or JxM:timeSeed:machineSeed, found \"" + spec + "\"");
+        }
+    }
+
+    /** Taillard's generator, computed without overflow with Schrage's method. */
+    private static class Lcg {
+        private long seed;
+
+        Lcg(long seed) {
+            if(seed <= 0 || seed >= M)
+                throw new IllegalArgumentException("seed " + seed + " out of range [1, " + (M - 1) + "]");
+            this.seed = seed;
+        }
+
+        /** Uniform integer in [low, high]. */
+        int next(int low, int high) {
+            long k = seed / Q;
+            seed = A * (seed % Q) - k * R;
+            if(seed < 0)
+                seed += M;
+            double value = (double) seed / M;
+            return low + (int) (value * (high - low + 1));
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package jobshop.encodings;
+
+import jobshop.Instance;
+
+import java.util.Arrays;
+
+/** Computes the makespans of a batch of JobNumbers chromosomes at once, without allocating anything.
+ *
+ * The chromosomes are stored in a structure-of-arrays layout : the gene at position pos of chromosome k is
+ * genes[pos * capacity + k], so the k-th genes of consecutive chromosomes are contiguous. The decoder state
+ * (next task and release time of each job, release time of each machine) uses the same layout.
+ */
+public class BatchMakespanEvaluator {
+
+    private final int numJobs;
+    private final int numTasks;
+    private final int numMachines;
+    private final int capacity;
+    private final int length;
+
+    // tables of the instance, indexed by task id = job * numTasks + task
+    private final int[] machine;
+    private final int[] duration;
+
+    /** genes[pos * capacity + k] : job at position pos of chromosome k */
+    private final int[] genes;
+
+    // decoder state : [job * capacity + k] or [machine * capacity + k]
+    private final int[] nextTask;
+    private final int[] jobReady;
+    private final int[] machineReady;
+
+    /** capacity : maximal number of chromosomes of a batch */
+    public BatchMakespanEvaluator(Instance instance, int capacity) {
+        this.numJobs = instance.numJobs;
+        this.numTasks = instance.numTasks;
+        this.numMachines = instance.numMachines;
+        this.capacity = capacity;
+        this.length = numJobs * numTasks;
+
+        machine = new int[length];
+        duration = new int[length];
+        for(int j = 0 ; j < numJobs ; j++) {
+            for(int t = 0 ; t < numTasks ; t++) {
+                machine[j * numTasks + t] = instance.machine(j, t);
+                duration[j * numTasks + t] = instance.duration(j, t);
+            }
+        }
+
+        genes = new int[length * capacity];
+        nextTask = new int[numJobs * capacity];
+        jobReady = new int[numJobs * capacity];
+        machineReady = new int[numMachines * capacity];
+    }
+
+    /** Maximal number of chromosomes of a batch. */
+    public int capacity() {
+        return capacity;
+    }
+
+    /** Copies the chromosome (the jobs array of a JobNumbers) at index k of the batch. */
+    public void set(int k, int[] jobs) {
+        for(int pos = 0 ; pos < length ; pos++) {
+            genes[pos * capacity + k] = jobs[pos];
+        }
+    }
+
+    /** Writes the makespans of the chromosomes 0 to count-1 of the batch in makespans. */
+    public void evaluate(int count, int[] makespans) {
+        Arrays.fill(nextTask, 0);
+        Arrays.fill(jobReady, 0);
+        Arrays.fill(machineReady, 0);
+        decode(count);
+        makespans(count, makespans);
+    }
+
+    /** Computes the release time of every job of the chromosomes 0 to count-1,
+     * all of them advancing one position at a time. */
+    private void decode(int count) {
+        for(int pos = 0 ; pos < length ; pos++) {
+            int base = pos * capacity;
+            for(int k = 0 ; k < count ; k++) {
+                int job = genes[base + k];
+                int slot = job * capacity + k;
+                int id = job * numTasks + nextTask[slot]++;
+                int machineSlot = machine[id] * capacity + k;
+                int end = Math.max(jobReady[slot], machineReady[machineSlot]) + duration[id];
+                jobReady[slot] = end;
+                machineReady[machineSlot] = end;
+            }
+        }
+    }
+
+    /** The makespan of a chromosome is the greatest release time of its jobs. */
+    private void makespans(int count, int[] makespans) {
+        for(int k = 0 ; k < count ; k++) {
+            int makespan = 0;
+            for(int j = 0 ; j < numJobs ; j++) {
+                makespan = Math.max(makespan, jobReady[j * capacity + k]);
+            }
+            makespans[k] = makespan;
+        }
+    }
+}
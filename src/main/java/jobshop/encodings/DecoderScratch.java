@@ -0,0 +1,48 @@
+package jobshop.encodings;
+
+import jobshop.Instance;
+
+/** Buffers of the decoders of the encodings, one set per thread, grown to the largest instance seen by the thread.
+ *
+ * The content of the arrays is unspecified when a decoder gets them, and a decoder does not keep them once it
+ * returns : the encodings hold no decoding state, so they can be decoded concurrently and copied cheaply.
+ */
+final class DecoderScratch {
+
+    /** for each job, the index of its next task to schedule */
+    int[] nextTask = new int[0];
+    /** for each job, the end time of its last scheduled task */
+    int[] jobReady = new int[0];
+    /** for each machine, the end time of its last scheduled task */
+    int[] machineReady = new int[0];
+    /** for each machine, the index of its next task to schedule */
+    int[] nextOnMachine = new int[0];
+    /** task ids, in the order in which they become ready */
+    int[] readyQueue = new int[0];
+    /** for each task id, its start time */
+    int[] startTimes = new int[0];
+    /** for each task id, the task that delays its start (-1 if it starts at 0) */
+    int[] predecessors = new int[0];
+
+    private static final ThreadLocal<DecoderScratch> scratch = ThreadLocal.withInitial(DecoderScratch::new);
+
+    /** Buffers of the current thread, large enough for the instance. */
+    static DecoderScratch of(Instance instance) {
+        DecoderScratch s = scratch.get();
+        if(s.nextTask.length < instance.numJobs) {
+            s.nextTask = new int[instance.numJobs];
+            s.jobReady = new int[instance.numJobs];
+        }
+        if(s.machineReady.length < instance.numMachines) {
+            s.machineReady = new int[instance.numMachines];
+            s.nextOnMachine = new int[instance.numMachines];
+        }
+        int numTaskIds = instance.numJobs * instance.numTasks;
+        if(s.startTimes.length < numTaskIds) {
+            s.readyQueue = new int[numTaskIds];
+            s.startTimes = new int[numTaskIds];
+            s.predecessors = new int[numTaskIds];
+        }
+        return s;
+    }
+}
@@ -50,31 +50,73 @@ public class JobNumbers extends Encoding {
         }
     }
 
+    /** Same decoding as toSchedule(), that only keeps the end time of each job and machine
+     * (in the buffers of the thread, see DecoderScratch). */
+    @Override
+    public int makespan() {
+        DecoderScratch s = DecoderScratch.of(instance);
+        int[] nextTask = s.nextTask;
+        int[] jobReady = s.jobReady;
+        int[] machineReady = s.machineReady;
+        Arrays.fill(nextTask, 0, instance.numJobs, 0);
+        Arrays.fill(jobReady, 0, instance.numJobs, 0);
+        Arrays.fill(machineReady, 0, instance.numMachines, 0);
+
+        for(int job : jobs) {
+            int task = nextTask[job]++;
+            int machine = instance.machine(job, task);
+            int end = Math.max(jobReady[job], machineReady[machine]) + instance.duration(job, task);
+            jobReady[job] = end;
+            machineReady[machine] = end;
+        }
+
+        int makespan = 0;
+        for(int j = 0 ; j < instance.numJobs ; j++) {
+            makespan = Math.max(makespan, jobReady[j]);
+        }
+        return makespan;
+    }
+
     @Override
     public Schedule toSchedule() {
         // time at which each machine is going to be freed
         int[] nextFreeTimeResource = new int[instance.numMachines];
 
+        // last task (id = job * numTasks + task) scheduled on each machine
+        int[] lastOnMachine = new int[instance.numMachines];
+        Arrays.fill(lastOnMachine, -1);
+
         // for each job, the first task that has not yet been scheduled
         int[] nextTask = new int[instance.numJobs];
 
         // for each task, its start time
         int[][] startTimes = new int[instance.numJobs][instance.numTasks];
 
+        // for each task id, the task that delays its start (-1 if it starts at 0)
+        int[] predecessors = new int[instance.numJobs * instance.numTasks];
+
         // compute the earliest start time for every task of every job
         for(int job : jobs) {
             int task = nextTask[job];
             int machine = instance.machine(job, task);
+            int id = job * instance.numTasks + task;
             // earliest start time for this task
             int est = task == 0 ? 0 : startTimes[job][task-1] + instance.duration(job, task-1);
-            est = Math.max(est, nextFreeTimeResource[machine]);
+            predecessors[id] = task == 0 ? -1 : id - 1;
+            if(nextFreeTimeResource[machine] > est) {
+                est = nextFreeTimeResource[machine];
+                predecessors[id] = lastOnMachine[machine];
+            }
+            if(est == 0)
+                predecessors[id] = -1;
 
             startTimes[job][task] = est;
             nextFreeTimeResource[machine] = est + instance.duration(job, task);
+            lastOnMachine[machine] = id;
             nextTask[job] = task + 1;
         }
 
-        return new Schedule(instance, startTimes);
+        return new Schedule(instance, startTimes, predecessors);
     }
 
     @Override
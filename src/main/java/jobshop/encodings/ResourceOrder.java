@@ -4,15 +4,18 @@ import jobshop.Encoding;
 import jobshop.Instance;
 import jobshop.Schedule;
 
-import java.util.Comparator;
-import java.util.Optional;
-import java.util.stream.IntStream;
+import java.util.Arrays;
 
 public class ResourceOrder extends Encoding {
 
-    // for each machine m, taskByMachine[m] is an array of tasks to be
-    // executed on this machine in the same order
-    public final Task[][] tasksByMachine;
+    // tasks are identified by their id : id = job * numTasks + task
+
+    // for each machine m, tasks[m * numJobs + i] is the id of the i-th task
+    // to be executed on this machine
+    private final int[] tasks;
+
+    // for each task id, the index of the task on its machine (-1 if it has not been placed yet)
+    private final int[] positions;
 
     // for each machine, indicate on many tasks have been initialized
     public final int[] nextFreeSlot;
@@ -22,8 +25,10 @@ public class ResourceOrder extends Encoding {
     {
         super(instance);
 
-        // matrix of null elements (null is the default value of objects)
-        tasksByMachine = new Task[instance.numMachines][instance.numJobs];
+        tasks = new int[instance.numMachines * instance.numJobs];
+        Arrays.fill(tasks, -1);
+        positions = new int[instance.numJobs * instance.numTasks];
+        Arrays.fill(positions, -1);
 
         // no task scheduled on any machine (0 is the default value)
         nextFreeSlot = new int[instance.numMachines];
@@ -32,83 +37,188 @@ public class ResourceOrder extends Encoding {
     /** Creates a resource order from a schedule. */
     public ResourceOrder(Schedule schedule)
     {
-        super(schedule.pb);
+        this(schedule.pb);
         Instance pb = schedule.pb;
 
-        this.tasksByMachine = new Task[pb.numMachines][];
-        this.nextFreeSlot = new int[instance.numMachines];
+        // start time of a task in the high bits, job in the low bits : sorting the keys
+        // sorts the tasks of a machine by start time
+        long[] keys = new long[pb.numJobs];
+        for(int m = 0 ; m<pb.numMachines ; m++) {
+            for(int j = 0 ; j<pb.numJobs ; j++) {
+                keys[j] = ((long) schedule.startTime(j, pb.task_with_machine(j, m)) << 32) | j;
+            }
+            Arrays.sort(keys);
+            for(long key : keys) {
+                int job = (int) key;
+                addTask(m, job, pb.task_with_machine(job, m));
+            }
+        }
+    }
+
+    /** Creates an exact copy of the given resource order. */
+    private ResourceOrder(ResourceOrder original)
+    {
+        super(original.instance);
+
+        tasks = new int[original.tasks.length];
+        System.arraycopy(original.tasks, 0, tasks, 0, tasks.length);
+        positions = new int[original.positions.length];
+        System.arraycopy(original.positions, 0, positions, 0, positions.length);
+        nextFreeSlot = new int[original.nextFreeSlot.length];
+        System.arraycopy(original.nextFreeSlot, 0, nextFreeSlot, 0, nextFreeSlot.length);
+    }
+
+    /** Id of the task at the given index on the given machine (-1 if the slot is empty). */
+    public int taskId(int machine, int index) {
+        return tasks[machine * instance.numJobs + index];
+    }
 
-        for(int m = 0 ; m<schedule.pb.numMachines ; m++) {
-            final int machine = m;
+    /** Task at the given index on the given machine. */
+    public Task getTask(int machine, int index) {
+        int id = taskId(machine, index);
+        return new Task(id / instance.numTasks, id % instance.numTasks);
+    }
 
-            // for thi machine, find all tasks that are executed on it and sort them by their start time
-            tasksByMachine[m] =
-                    IntStream.range(0, pb.numJobs) // all job numbers
-                            .mapToObj(j -> new Task(j, pb.task_with_machine(j, machine))) // all tasks on this machine (one per job)
-                            .sorted(Comparator.comparing(t -> schedule.startTime(t.job, t.task))) // sorted by start time
-                            .toArray(Task[]::new); // as new array and store in tasksByMachine
+    /** Index of the given task in the sequence of its machine (-1 if it has not been placed yet). */
+    public int positionOf(int job, int task) {
+        return positions[job * instance.numTasks + task];
+    }
 
-            // indicate that all tasks have been initialized for machine m
-            nextFreeSlot[m] = instance.numJobs;
+    /** Appends a task at the end of the sequence of the given machine. */
+    public void addTask(int machine, int job, int task) {
+        int id = job * instance.numTasks + task;
+        int index = nextFreeSlot[machine]++;
+        tasks[machine * instance.numJobs + index] = id;
+        positions[id] = index;
+    }
+
+    public void addTask(int machine, Task t) {
+        addTask(machine, t.job, t.task);
+    }
+
+    /** Removes all the tasks of the given machine. */
+    public void clearMachine(int machine) {
+        int offset = machine * instance.numJobs;
+        for(int i = 0 ; i < nextFreeSlot[machine] ; i++) {
+            positions[tasks[offset + i]] = -1;
+            tasks[offset + i] = -1;
         }
+        nextFreeSlot[machine] = 0;
+    }
+
+    /** Exchanges the tasks at indices i1 and i2 on the given machine. */
+    public void swap(int machine, int i1, int i2) {
+        int offset = machine * instance.numJobs;
+        int id1 = tasks[offset + i1];
+        int id2 = tasks[offset + i2];
+        tasks[offset + i1] = id2;
+        tasks[offset + i2] = id1;
+        positions[id1] = i2;
+        positions[id2] = i1;
+    }
+
+    /** Computes the earliest start time of every task in s.startTimes (indexed by task id),
+     * with the task that delays it in s.predecessors,
+     * by following a topological order of the disjunctive graph (Kahn's algorithm).
+     * Returns false if the order contains a cycle. */
+    private boolean decode(DecoderScratch s) {
+        int numJobs = instance.numJobs;
+        int numTasks = instance.numTasks;
+        int[] nextToScheduleByJob = s.nextTask;
+        int[] nextToScheduleByMachine = s.nextOnMachine;
+        int[] releaseTimeOfMachine = s.machineReady;
+        int[] readyQueue = s.readyQueue;
+        int[] startTimes = s.startTimes;
+        int[] predecessors = s.predecessors;
+        Arrays.fill(nextToScheduleByJob, 0, numJobs, 0);
+        Arrays.fill(nextToScheduleByMachine, 0, instance.numMachines, 0);
+        Arrays.fill(releaseTimeOfMachine, 0, instance.numMachines, 0);
+
+        // a task is ready when it is the next to be scheduled both on its machine and on its job.
+        // Initially, these are the first tasks of the machines that are also the first of their job.
+        int head = 0;
+        int tail = 0;
+        for(int m = 0 ; m < instance.numMachines ; m++) {
+            int first = taskId(m, 0);
+            if(first % numTasks == 0)
+                readyQueue[tail++] = first;
+        }
+
+        while(head < tail) {
+            int id = readyQueue[head++];
+            int job = id / numTasks;
+            int task = id % numTasks;
+            int machine = instance.machine(job, task);
+
+            // compute the earliest start time (est) of the task, and record the task that delays it
+            int est = task == 0 ? 0 : startTimes[id-1] + instance.duration(job, task-1);
+            predecessors[id] = task == 0 ? -1 : id - 1;
+            if(releaseTimeOfMachine[machine] > est) {
+                est = releaseTimeOfMachine[machine];
+                predecessors[id] = taskId(machine, nextToScheduleByMachine[machine] - 1);
+            }
+            if(est == 0)
+                predecessors[id] = -1;
+            startTimes[id] = est;
+            // increase the release time of the machine
+            releaseTimeOfMachine[machine] = est + instance.duration(job, task);
+
+            // mark the task as scheduled
+            int nextOnJob = ++nextToScheduleByJob[job];
+            int nextOnMachine = ++nextToScheduleByMachine[machine];
+
+            // the next task on the machine is ready if its job predecessor is already scheduled
+            if(nextOnMachine < numJobs) {
+                int succ = taskId(machine, nextOnMachine);
+                if(succ % numTasks == nextToScheduleByJob[succ / numTasks])
+                    readyQueue[tail++] = succ;
+            }
+            // the next task on the job is ready if its machine predecessor is already scheduled
+            if(nextOnJob < numTasks) {
+                int succ = id + 1;
+                if(positions[succ] == nextToScheduleByMachine[instance.machine(job, nextOnJob)])
+                    readyQueue[tail++] = succ;
+            }
+        }
+
+        // if some tasks were never ready, we have cyclic dependency and the solution is invalid
+        return tail == numJobs * numTasks;
     }
 
     @Override
     public Schedule toSchedule() {
-        // indicate for each task that have been scheduled, its start time
-        int [][] startTimes = new int [instance.numJobs][instance.numTasks];
-
-        // for each job, how many tasks have been scheduled (0 initially)
-        int[] nextToScheduleByJob = new int[instance.numJobs];
-
-        // for each machine, how many tasks have been scheduled (0 initially)
-        int[] nextToScheduleByMachine = new int[instance.numMachines];
-
-        // for each machine, earliest time at which the machine can be used
-        int[] releaseTimeOfMachine = new int[instance.numMachines];
-
-
-        // loop while there remains a job that has unscheduled tasks
-        while(IntStream.range(0, instance.numJobs).anyMatch(m -> nextToScheduleByJob[m] < instance.numTasks)) {
-
-            // selects a task that has noun scheduled predecessor on its job and machine :
-            //  - it is the next to be schedule on a machine
-            //  - it is the next to be scheduled on its job
-            // if there is no such task, we have cyclic dependency and the solution is invalid
-            Optional<Task> schedulable =
-                    IntStream.range(0, instance.numMachines) // all machines ...
-                    .filter(m -> nextToScheduleByMachine[m] < instance.numJobs) // ... with unscheduled jobs
-                    .mapToObj(m -> this.tasksByMachine[m][nextToScheduleByMachine[m]]) // tasks that are next to schedule on a machine ...
-                    .filter(task -> task.task == nextToScheduleByJob[task.job])  // ... and on their job
-                    .findFirst(); // select the first one if any
-
-            if(schedulable.isPresent()) {
-                // we found a schedulable task, lets call it t
-                Task t = schedulable.get();
-                int machine = instance.machine(t.job, t.task);
-
-                // compute the earliest start time (est) of the task
-                int est = t.task == 0 ? 0 : startTimes[t.job][t.task-1] + instance.duration(t.job, t.task-1);
-                est = Math.max(est, releaseTimeOfMachine[instance.machine(t)]);
-                startTimes[t.job][t.task] = est;
-
-                // mark the task as scheduled
-                nextToScheduleByJob[t.job]++;
-                nextToScheduleByMachine[machine]++;
-                // increase the release time of the machine
-                releaseTimeOfMachine[machine] = est + instance.duration(t.job, t.task);
-            } else {
-                // no tasks are schedulable, there is no solution for this resource ordering
-                return null;
-            }
+        DecoderScratch s = DecoderScratch.of(instance);
+        if(!decode(s)) {
+            // there is no solution for this resource ordering
+            return null;
+        }
+
+        int [][] times = new int [instance.numJobs][instance.numTasks];
+        for(int j = 0 ; j < instance.numJobs ; j++) {
+            System.arraycopy(s.startTimes, j * instance.numTasks, times[j], 0, instance.numTasks);
+        }
+        return new Schedule(instance, times, s.predecessors);
+    }
+
+    /** Makespan of the schedule, computed by the decoder of toSchedule() in the same buffers (see DecoderScratch),
+     * without building the schedule (Integer.MAX_VALUE if the order contains a cycle). */
+    @Override
+    public int makespan() {
+        DecoderScratch s = DecoderScratch.of(instance);
+        if(!decode(s))
+            return Integer.MAX_VALUE;
+
+        int makespan = 0;
+        for(int j = 0 ; j < instance.numJobs ; j++) {
+            int last = j * instance.numTasks + instance.numTasks - 1;
+            makespan = Math.max(makespan, s.startTimes[last] + instance.duration(j, instance.numTasks - 1));
         }
-        // we exited the loop : all tasks have been scheduled successfully
-        return new Schedule(instance, startTimes);
+        return makespan;
     }
 
     /** Creates an exact copy of this resource order. */
     public ResourceOrder copy() {
-        return new ResourceOrder(this.toSchedule());
+        return new ResourceOrder(this);
     }
 
     @Override
@@ -118,9 +228,9 @@ public class ResourceOrder extends Encoding {
         for(int m=0; m < instance.numMachines; m++)
         {
             s.append("Machine ").append(m).append(" : ");
-            for(int j=0; j<instance.numJobs; j++)
+            for(int j=0; j<nextFreeSlot[m]; j++)
             {
-                s.append(tasksByMachine[m][j]).append(" ; ");
+                s.append(getTask(m, j)).append(" ; ");
             }
             s.append("\n");
         }
@@ -128,4 +238,4 @@ public class ResourceOrder extends Encoding {
         return s.toString();
     }
 
-}
\ No newline at end of file
+}
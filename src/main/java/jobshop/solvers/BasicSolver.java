@@ -3,6 +3,7 @@ package jobshop.solvers;
 import jobshop.Instance;
 import jobshop.Result;
 import jobshop.Solver;
+import jobshop.SolverMetrics;
 import jobshop.encodings.JobNumbers;
 
 public class BasicSolver implements Solver {
@@ -16,6 +17,9 @@ public class BasicSolver implements Solver {
             }
         }
 
-        return new Result(instance, sol.toSchedule(), Result.ExitCause.Blocked);
+        SolverMetrics metrics = new SolverMetrics();
+        metrics.iterations = 1;
+        metrics.decodes = 1;
+        return new Result(instance, sol.toSchedule(), Result.ExitCause.Blocked, metrics);
     }
 }
@@ -0,0 +1,350 @@
+package jobshop.solvers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import jobshop.AnytimeSolver;
+import jobshop.Instance;
+import jobshop.LowerBound;
+import jobshop.Result;
+import jobshop.Schedule;
+import jobshop.SearchControl;
+import jobshop.SolverMetrics;
+
+/** Exact solver : branch and bound over the active schedules (Giffler and Thompson).
+ *
+ * A node is a partial schedule. Its children are obtained by taking the unscheduled task with the earliest possible
+ * end time, and by choosing which task of the conflict set of its machine (the tasks that could start before this
+ * end time) is scheduled first : this orients the disjunctions between the chosen task and the rest of the conflict
+ * set. Every active schedule, so at least one optimal schedule, is a leaf of this tree.
+ *
+ * A node is pruned when its lower bound is not better than the best solution found so far (the incumbent).
+ * The bound is the maximum over the machines of the preemptive one-machine problem on the unscheduled tasks,
+ * with heads given by the partial schedule and tails given by the remaining work of the jobs.
+ *
+ * Subtrees are forked in a ForkJoinPool while the queue of the current thread is almost empty, so idle threads steal
+ * them ; the incumbent is shared by all threads. The initial incumbent comes from a short tabu search.
+ * When the whole tree has been explored before the deadline, the solution is optimal (ExitCause.ProvedOptimal).
+ */
+public class BranchAndBoundSolver implements AnytimeSolver {
+
+    /** a subtree is forked only if the thread has at most this number of tasks waiting in its queue */
+    private static final int MAX_SURPLUS_TASKS = 2;
+    /** part of the time given to the tabu search that finds the initial incumbent */
+    private static final double HEURISTIC_TIME = 0.1;
+
+    private final int numThreads;
+
+    private Instance instance;
+    private long deadline;
+    private SearchControl control;
+    private volatile boolean stopped;
+
+    // incumbent, shared by all threads
+    private final AtomicInteger bestMakespan = new AtomicInteger();
+    private int[] bestStartTimes;
+
+    // statistics of the last call to solve
+    private final LongAdder nodes = new LongAdder();
+    private final LongAdder pruned = new LongAdder();
+    /** children whose lower bound was computed */
+    private final LongAdder bounded = new LongAdder();
+    private long start;
+    private volatile long lastImprovementMs;
+    private long runtimeNs;
+
+    public BranchAndBoundSolver(int numThreads) {
+        this.numThreads = numThreads;
+    }
+
+    @Override
+    public Result solve(Instance instance, long deadline, SearchControl control) {
+        start = System.nanoTime();
+        lastImprovementMs = -1;
+        this.instance = instance;
+        this.deadline = deadline;
+        this.control = control;
+        this.stopped = false;
+        nodes.reset();
+        pruned.reset();
+        bounded.reset();
+
+        long heuristicDeadline = System.currentTimeMillis() + (long) ((deadline - System.currentTimeMillis()) * HEURISTIC_TIME);
+        Result heuristic = new TabouSolver().solve(instance, heuristicDeadline, control);
+        lastImprovementMs = heuristic.metrics.lastImprovementMs;
+        Schedule schedule;
+        Result.ExitCause cause;
+        if(heuristic.cause == Result.ExitCause.ProvedOptimal || control.isCancelled()) {
+            schedule = heuristic.schedule;
+            cause = heuristic.cause == Result.ExitCause.ProvedOptimal ? Result.ExitCause.ProvedOptimal : Result.ExitCause.Cancelled;
+        } else {
+            bestMakespan.set(heuristic.schedule.makespan());
+            bestStartTimes = new int[instance.numJobs * instance.numTasks];
+            for(int j = 0 ; j < instance.numJobs ; j++) {
+                for(int t = 0 ; t < instance.numTasks ; t++) {
+                    bestStartTimes[j * instance.numTasks + t] = heuristic.schedule.startTime(j, t);
+                }
+            }
+
+            ForkJoinPool pool = new ForkJoinPool(numThreads);
+            try {
+                pool.invoke(new Node(new PartialSchedule(instance)));
+            } finally {
+                pool.shutdownNow();
+            }
+            schedule = toSchedule(bestStartTimes);
+
+            if(!stopped)
+                cause = Result.ExitCause.ProvedOptimal;
+            else if(control.isCancelled())
+                cause = Result.ExitCause.Cancelled;
+            else
+                cause = Result.ExitCause.Timeout;
+        }
+        runtimeNs = System.nanoTime() - start;
+
+        // the counters are the ones of the tree (0 nodes if the heuristic already stopped the search),
+        // the ones of the tabu search are in extra()
+        SolverMetrics metrics = new SolverMetrics();
+        metrics.iterations = nodes.sum();
+        metrics.neighbors = bounded.sum();
+        metrics.lastImprovementMs = lastImprovementMs;
+        metrics.put("pruned", pruned.sum());
+        metrics.put("heuristic_iterations", heuristic.metrics.iterations);
+        metrics.put("heuristic_neighbors", heuristic.metrics.neighbors);
+        metrics.put("heuristic_decodes", heuristic.metrics.decodes);
+        metrics.put("heuristic_restarts", heuristic.metrics.restarts);
+        return new Result(instance, schedule, cause, metrics);
+    }
+
+    /** Number of nodes explored during the last call to solve. */
+    public long getNodes() {
+        return nodes.sum();
+    }
+
+    /** Number of children discarded by their lower bound during the last call to solve. */
+    public long getPruned() {
+        return pruned.sum();
+    }
+
+    /** Number of nodes explored per second (over all threads) during the last call to solve. */
+    public double getNodesPerSecond() {
+        return nodes.sum() / Math.max(1e-9, runtimeNs / 1e9);
+    }
+
+    private Schedule toSchedule(int[] startTimes) {
+        int[][] times = new int[instance.numJobs][instance.numTasks];
+        for(int j = 0 ; j < instance.numJobs ; j++) {
+            System.arraycopy(startTimes, j * instance.numTasks, times[j], 0, instance.numTasks);
+        }
+        return new Schedule(instance, times);
+    }
+
+    /** Publishes a complete schedule if it is better than the incumbent. */
+    private synchronized void offer(PartialSchedule leaf) {
+        if(leaf.makespan >= bestMakespan.get())
+            return;
+        bestMakespan.set(leaf.makespan);
+        bestStartTimes = leaf.startTimes.clone();
+        control.offer(toSchedule(bestStartTimes));
+        lastImprovementMs = SolverMetrics.elapsedMs(start);
+    }
+
+    /** A partial schedule : the first nextTask[j] tasks of each job j are scheduled. */
+    private static class PartialSchedule {
+        /** index of the next task to schedule in each job */
+        final int[] nextTask;
+        /** end time of the last scheduled task of each job */
+        final int[] jobReady;
+        /** end time of the last scheduled task of each machine */
+        final int[] machineReady;
+        /** start time of each scheduled task (by id = job * numTasks + task) */
+        final int[] startTimes;
+        int numScheduled;
+        int makespan;
+
+        PartialSchedule(Instance instance) {
+            nextTask = new int[instance.numJobs];
+            jobReady = new int[instance.numJobs];
+            machineReady = new int[instance.numMachines];
+            startTimes = new int[instance.numJobs * instance.numTasks];
+        }
+
+        private PartialSchedule(PartialSchedule original) {
+            nextTask = original.nextTask.clone();
+            jobReady = original.jobReady.clone();
+            machineReady = original.machineReady.clone();
+            startTimes = original.startTimes.clone();
+            numScheduled = original.numScheduled;
+            makespan = original.makespan;
+        }
+
+        PartialSchedule copy() {
+            return new PartialSchedule(this);
+        }
+    }
+
+    /** Exploration of a subtree. The scratch arrays belong to the task, so each thread has its own. */
+    private class Node extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final PartialSchedule root;
+
+        // scratch arrays of the bound
+        private final int[] head;
+        private final int[] duration;
+        private final int[] tail;
+        private final int[] remaining;
+
+        Node(PartialSchedule root) {
+            this.root = root;
+            head = new int[instance.numJobs];
+            duration = new int[instance.numJobs];
+            tail = new int[instance.numJobs];
+            remaining = new int[instance.numJobs];
+        }
+
+        @Override
+        protected void compute() {
+            List<Node> forked = new ArrayList<>();
+            explore(root, forked);
+            for(Node node : forked) {
+                node.join();
+            }
+        }
+
+        private void explore(PartialSchedule s, List<Node> forked) {
+            nodes.increment();
+            if(stopped || control.shouldStop(deadline)) {
+                stopped = true;
+                return;
+            }
+            if(s.numScheduled == s.startTimes.length) {
+                offer(s);
+                return;
+            }
+
+            // unscheduled task with the earliest end time
+            int earliestEnd = Integer.MAX_VALUE;
+            int machine = -1;
+            for(int j = 0 ; j < instance.numJobs ; j++) {
+                int t = s.nextTask[j];
+                if(t == instance.numTasks)
+                    continue;
+                int m = instance.machine(j, t);
+                int end = Math.max(s.jobReady[j], s.machineReady[m]) + instance.duration(j, t);
+                if(end < earliestEnd) {
+                    earliestEnd = end;
+                    machine = m;
+                }
+            }
+
+            // conflict set : the tasks of this machine that can start before this end time,
+            // with the lower bound of the child in which each of them is scheduled first
+            int[] children = new int[instance.numJobs];
+            int[] bounds = new int[instance.numJobs];
+            int numChildren = 0;
+            for(int j = 0 ; j < instance.numJobs ; j++) {
+                int t = s.nextTask[j];
+                if(t == instance.numTasks || instance.machine(j, t) != machine)
+                    continue;
+                if(Math.max(s.jobReady[j], s.machineReady[machine]) < earliestEnd) {
+                    int previousJobReady = s.jobReady[j];
+                    int previousMachineReady = s.machineReady[machine];
+                    int previousMakespan = s.makespan;
+                    schedule(s, j);
+                    int bound = lowerBound(s);
+                    unschedule(s, j, previousJobReady, previousMachineReady, previousMakespan);
+
+                    // insertion by increasing bound : the most promising children are explored first
+                    int i = numChildren++;
+                    while(i > 0 && bounds[i-1] > bound) {
+                        children[i] = children[i-1];
+                        bounds[i] = bounds[i-1];
+                        i--;
+                    }
+                    children[i] = j;
+                    bounds[i] = bound;
+                }
+            }
+
+            bounded.add(numChildren);
+            for(int c = 0 ; c < numChildren ; c++) {
+                if(bounds[c] >= bestMakespan.get()) {
+                    // the other children have a greater bound
+                    pruned.add(numChildren - c);
+                    return;
+                }
+                int j = children[c];
+                int previousJobReady = s.jobReady[j];
+                int previousMachineReady = s.machineReady[machine];
+                int previousMakespan = s.makespan;
+                schedule(s, j);
+                if(getSurplusQueuedTaskCount() <= MAX_SURPLUS_TASKS) {
+                    Node node = new Node(s.copy());
+                    node.fork();
+                    forked.add(node);
+                } else {
+                    explore(s, forked);
+                }
+                unschedule(s, j, previousJobReady, previousMachineReady, previousMakespan);
+            }
+        }
+
+        /** Schedules the next task of the job at its earliest start time. */
+        private void schedule(PartialSchedule s, int job) {
+            int t = s.nextTask[job];
+            int m = instance.machine(job, t);
+            int start = Math.max(s.jobReady[job], s.machineReady[m]);
+            int end = start + instance.duration(job, t);
+            s.startTimes[job * instance.numTasks + t] = start;
+            s.jobReady[job] = end;
+            s.machineReady[m] = end;
+            s.nextTask[job]++;
+            s.numScheduled++;
+            s.makespan = Math.max(s.makespan, end);
+        }
+
+        private void unschedule(PartialSchedule s, int job, int previousJobReady, int previousMachineReady, int previousMakespan) {
+            s.nextTask[job]--;
+            s.numScheduled--;
+            s.jobReady[job] = previousJobReady;
+            s.machineReady[instance.machine(job, s.nextTask[job])] = previousMachineReady;
+            s.makespan = previousMakespan;
+        }
+
+        /** Lower bound of the makespan of any schedule that completes the partial one. */
+        private int lowerBound(PartialSchedule s) {
+            int bound = s.makespan;
+            for(int j = 0 ; j < instance.numJobs ; j++) {
+                if(s.nextTask[j] < instance.numTasks)
+                    bound = Math.max(bound, s.jobReady[j] + instance.remainingWork(j, s.nextTask[j]));
+            }
+
+            for(int m = 0 ; m < instance.numMachines ; m++) {
+                // unscheduled tasks of the machine
+                int n = 0;
+                for(int j = 0 ; j < instance.numJobs ; j++) {
+                    int next = s.nextTask[j];
+                    int t = instance.task_with_machine(j, m);
+                    if(t < next)
+                        continue;
+                    duration[n] = instance.duration(j, t);
+                    // the tasks of the job between next and t must be executed before t
+                    int earliest = s.jobReady[j] + instance.remainingWork(j, next) - instance.remainingWork(j, t);
+                    head[n] = Math.max(earliest, s.machineReady[m]);
+                    tail[n] = instance.remainingWork(j, t) - duration[n];
+                    n++;
+                }
+                if(n > 0)
+                    bound = Math.max(bound, LowerBound.oneMachinePreemptive(n, head, duration, tail, remaining));
+            }
+            return bound;
+        }
+    }
+}
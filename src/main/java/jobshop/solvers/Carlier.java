@@ -0,0 +1,189 @@
+package jobshop.solvers;
+
+import jobshop.LowerBound;
+
+/** Carlier's branch and bound for the one-machine problem with heads and tails (J. Carlier, The one-machine
+ * sequencing problem, 1982) : sequences n tasks to minimize the greatest end time plus tail of a task.
+ *
+ * Each node schedules the tasks with Schrage's rule (the available task with the longest tail first). If this
+ * schedule is not proved optimal, a task c of its critical block has a shorter tail than the last critical task :
+ * c goes either after the set J of the tasks that follow it in the block (its head is raised) or before it (its
+ * tail is raised), which gives the two children. Nodes whose preemptive bound (see LowerBound.oneMachinePreemptive)
+ * cannot beat the best sequence are pruned, and the search stops after maxNodes nodes (or at the deadline of the call)
+ * with the best sequence found.
+ *
+ * The arrays of a call are indexed by task (0 to n-1), the sequences give the tasks in their order of execution.
+ */
+final class Carlier {
+
+    private final int maxNodes;
+
+    /** best sequence found by the last call to solve */
+    final int[] sequence;
+    /** sequence of Schrage's rule on the heads and tails of the last call to solve */
+    final int[] schrageSequence;
+
+    // data of the current call
+    private int n;
+    private int[] duration;
+    private int[] head;
+    private int[] tail;
+    private int bestValue;
+    private int nodes;
+    private long deadline;
+
+    // scratch arrays of a node (not used any more once it branches)
+    private final int[] nodeSequence;
+    private final int[] start;
+    private final boolean[] done;
+    private final int[] remaining;
+
+    /** capacity : maximal number of tasks of a call */
+    Carlier(int capacity, int maxNodes) {
+        this.maxNodes = maxNodes;
+        sequence = new int[capacity];
+        schrageSequence = new int[capacity];
+        nodeSequence = new int[capacity];
+        start = new int[capacity];
+        done = new boolean[capacity];
+        remaining = new int[capacity];
+    }
+
+    /** Sequences the n first tasks of the arrays, and returns the value of the best sequence found. */
+    int solve(int n, int[] head, int[] duration, int[] tail) {
+        return solve(n, head, duration, tail, Long.MAX_VALUE);
+    }
+
+    /** Same as solve(n, head, duration, tail), without branching any more once the deadline is reached. */
+    int solve(int n, int[] head, int[] duration, int[] tail, long deadline) {
+        this.n = n;
+        this.deadline = deadline;
+        this.head = head;
+        this.duration = duration;
+        this.tail = tail;
+        bestValue = Integer.MAX_VALUE;
+        nodes = 0;
+        node(head.clone(), tail.clone());
+        return bestValue;
+    }
+
+    /** Number of nodes explored by the last call to solve. */
+    int getNodes() {
+        return nodes;
+    }
+
+    /** Value of a sequence of the n tasks, with the heads and tails of the current call. */
+    int value(int[] order) {
+        int time = 0;
+        int value = 0;
+        for(int k = 0 ; k < n ; k++) {
+            int i = order[k];
+            time = Math.max(time, head[i]) + duration[i];
+            value = Math.max(value, time + tail[i]);
+        }
+        return value;
+    }
+
+    private void node(int[] r, int[] q) {
+        nodes++;
+        int value = schrage(r, q);
+        if(nodes == 1)
+            System.arraycopy(nodeSequence, 0, schrageSequence, 0, n);
+        // the heads and tails of a node are at least the ones of the problem : the sequence can only be better there
+        int realValue = value(nodeSequence);
+        if(realValue < bestValue) {
+            bestValue = realValue;
+            System.arraycopy(nodeSequence, 0, sequence, 0, n);
+        }
+
+        // last critical task p, and first task a of its block (no idle time from a to p)
+        int p = n - 1;
+        while(start[nodeSequence[p]] + duration[nodeSequence[p]] + q[nodeSequence[p]] != value)
+            p--;
+        int a = p;
+        while(a > 0 && start[nodeSequence[a - 1]] + duration[nodeSequence[a - 1]] == start[nodeSequence[a]])
+            a--;
+        // last task c of the block before p with a shorter tail than p : without it, the schedule is optimal
+        int c = p - 1;
+        while(c >= a && q[nodeSequence[c]] >= q[nodeSequence[p]])
+            c--;
+        if(c < a || exhausted())
+            return;
+
+        // J : the tasks after c in the block
+        int minHead = Integer.MAX_VALUE;
+        int minTail = Integer.MAX_VALUE;
+        int sumDuration = 0;
+        for(int k = c + 1 ; k <= p ; k++) {
+            int i = nodeSequence[k];
+            minHead = Math.min(minHead, r[i]);
+            minTail = Math.min(minTail, q[i]);
+            sumDuration += duration[i];
+        }
+        int taskC = nodeSequence[c];
+
+        // c after J
+        int[] afterHeads = r.clone();
+        afterHeads[taskC] = Math.max(r[taskC], minHead + sumDuration);
+        int afterBound = LowerBound.oneMachinePreemptive(n, afterHeads, duration, q, remaining);
+        // c before J
+        int[] beforeTails = q.clone();
+        beforeTails[taskC] = Math.max(q[taskC], minTail + sumDuration);
+        int beforeBound = LowerBound.oneMachinePreemptive(n, r, duration, beforeTails, remaining);
+
+        // most promising child first
+        if(afterBound <= beforeBound) {
+            if(afterBound < bestValue && !exhausted())
+                node(afterHeads, q);
+            if(beforeBound < bestValue && !exhausted())
+                node(r, beforeTails);
+        } else {
+            if(beforeBound < bestValue && !exhausted())
+                node(r, beforeTails);
+            if(afterBound < bestValue && !exhausted())
+                node(afterHeads, q);
+        }
+    }
+
+    /** True if no more node can be explored. */
+    private boolean exhausted() {
+        return nodes >= maxNodes || System.currentTimeMillis() >= deadline;
+    }
+
+    /** Schedules the tasks with Schrage's rule on the heads r and tails q, in nodeSequence and start.
+     * Returns the greatest end time plus tail of a task. */
+    private int schrage(int[] r, int[] q) {
+        for(int i = 0 ; i < n ; i++)
+            done[i] = false;
+        int time = 0;
+        int value = 0;
+        for(int k = 0 ; k < n ; k++) {
+            // available task with the longest tail, or the next one to become available
+            int chosen = -1;
+            int firstAvailable = -1;
+            for(int i = 0 ; i < n ; i++) {
+                if(done[i])
+                    continue;
+                if(r[i] <= time) {
+                    if(chosen == -1 || q[i] > q[chosen])
+                        chosen = i;
+                } else if(firstAvailable == -1 || r[i] < r[firstAvailable]) {
+                    firstAvailable = i;
+                }
+            }
+            if(chosen == -1) {
+                // no task is available : wait for the next one, and choose again
+                time = r[firstAvailable];
+                k--;
+                continue;
+            }
+
+            start[chosen] = time;
+            time += duration[chosen];
+            value = Math.max(value, time + q[chosen]);
+            done[chosen] = true;
+            nodeSequence[k] = chosen;
+        }
+        return value;
+    }
+}
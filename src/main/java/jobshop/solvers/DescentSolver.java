@@ -4,6 +4,7 @@ import jobshop.Instance;
 import jobshop.Result;
 import jobshop.Schedule;
 import jobshop.Solver;
+import jobshop.SolverMetrics;
 import jobshop.encodings.ResourceOrder;
 import jobshop.encodings.Task;
 import jobshop.solvers.GreedySolver.Priorite;
@@ -11,6 +12,12 @@ import jobshop.solvers.GreedySolver.Priorite;
 import java.util.ArrayList;
 import java.util.List;
 
+/** Steepest descent on the Nowicki and Smutnicki neighborhood : at each step, the best neighbor is applied (the
+ * first one in case of tie), until no neighbor improves the makespan or the lower bound of the instance is reached.
+ *
+ * The neighbors are sorted by their estimated makespan (see HeadTailEvaluator), a lower bound of the exact one, so
+ * only the neighbors that can still beat the best one found are evaluated exactly.
+ */
 public class DescentSolver implements Solver {
 
     /** A block represents a subsequence of the critical path such that all tasks 
@@ -78,21 +85,47 @@ public class DescentSolver implements Solver {
         /** Apply this swap on the given resource order, transforming it into a new solution. */
         public void applyOn(ResourceOrder order) 
         {
-        	
-        	Task first_Task = order.tasksByMachine[machine][t1];
-        	Task second_Task = order.tasksByMachine[machine][t2];
-        	
-        	order.tasksByMachine[machine][t1] = second_Task;
-        	order.tasksByMachine[machine][t2] = first_Task;
+        	order.swap(machine, t1, t2);
         }
     }
 
+    
+    //gives the initial solution
+    private final Solver first_solver;
+    
+    //makespans of the orders already evaluated, by Zobrist hash : a neighbor seen before is not evaluated again
+    private int cache_size = 1 << 16;
+    private MakespanCache cache;
+    
+    public DescentSolver()
+    {
+    	this(new GreedySolver(Priorite.EST_SPT));
+    	//this(new RandomSolver());
+    }
+    
+    /** The descent starts from the solution of first_solver (e.g. ShiftingBottleneckSolver). */
+    public DescentSolver(Solver first_solver)
+    {
+    	this.first_solver = first_solver;
+    }
+    
+    /** Maximal number of evaluated orders kept in the cache (see MakespanCache). */
+    public void setCacheSize(int cache_size)
+    {
+    	this.cache_size = cache_size;
+    }
+    
+    /** Cache of the last call to solve, with its hit and miss counts. */
+    public MakespanCache getCache()
+    {
+    	return cache;
+    }
 
     @Override
     public Result solve(Instance instance, long deadline) 
     {
-    	GreedySolver first_solver = new GreedySolver(Priorite.EST_SPT);
-    	//RandomSolver first_solver = new RandomSolver();
+    	long start = System.nanoTime();
+    	SolverMetrics metrics = new SolverMetrics();
     	Result first_soluce = first_solver.solve(instance, deadline);
         
     	//to return
@@ -102,56 +135,102 @@ public class DescentSolver implements Solver {
     	
     	//used in each loop of for*for
     	ResourceOrder current_r_order = new ResourceOrder(current_schedule);
-    	int current_makespan = current_schedule.makespan();
     	
-    	boolean can_find_better = true;
+    	//heads and tails of the current order, to evaluate the neighbors without building their schedule
+    	HeadTailEvaluator evaluator = new HeadTailEvaluator(instance);
+    	evaluator.load(current_r_order);
+    	metrics.decodes++;
+    	int current_makespan = evaluator.makespan();
+    	long current_hash = ZobristHash.of(current_r_order);
+    	cache = new MakespanCache(cache_size);
+    	cache.put(current_hash, current_makespan);
+    	//buffer for the critical path of the current order
+    	int [] critical_path = new int[instance.numJobs * instance.numTasks];
+    	
+    	//no need to look for a better solution once the lower bound is reached
+    	int lower_bound = instance.lowerBound();
+    	boolean can_find_better = current_makespan > lower_bound;
     	
     	while(can_find_better)
     	{
     		can_find_better = false;
     		
-    		List<Block> all_blocks = blocksOfCriticalPath(current_r_order);
-        	int numb_blocks = all_blocks.size();
-        	
-        	ResourceOrder local_r_order = current_r_order;
-        	
-        	//System.out.print("\n" + all_blocks + "\n");
-        	
-        	for(int b = 0 ; b < numb_blocks ; b++)
-        	{
-        		//System.out.println("\n  block [ ");
-        		
-        		List<Swap> all_current_swaps = neighbors(all_blocks.get(b));
-        		int numb_swaps = all_current_swaps.size();
-        		
-        		for(int s = 0 ; s < numb_swaps ; s++)
-        		{
-        			ResourceOrder new_r_order = current_r_order.copy();
-        			all_current_swaps.get(s).applyOn(new_r_order);
-        			
-        			Schedule new_schedule = new_r_order.toSchedule();
-        			
-        			if(new_schedule != null)
-        			{
-        				if(new_schedule.isValid())
-        				{
-        					int new_makespan = new_schedule.makespan();
-        					
-        					if(new_makespan < current_makespan)
-        					{
-        						local_r_order = new_r_order;
-        						current_makespan = new_makespan;
-        						can_find_better = true;
-        					}
-        				}
-        			}
-        		}
-        	}
-        	
-        	current_r_order = local_r_order;
+    		List<Swap> all_swaps = new ArrayList<Swap>();
+    		for(Block block : blocksOfCriticalPath(current_r_order, evaluator, critical_path))
+    		{
+    			all_swaps.addAll(neighbors(block));
+    		}
+    		
+    		int numb_swaps = all_swaps.size();
+    		metrics.neighbors += numb_swaps;
+    		int [] estimates = new int[numb_swaps];
+    		for(int s = 0 ; s < numb_swaps ; s++)
+    		{
+    			estimates[s] = evaluator.estimate(all_swaps.get(s), current_r_order);
+    		}
+    		
+    		//best neighbor (the first one in case of tie, as a scan of all the neighbors would choose)
+    		//the estimate is a lower bound of the makespan of the neighbor : we try the most promising swaps first,
+    		//and stop computing exact makespans once the next estimate cannot beat the best neighbor found
+    		int best_swap = -1;
+    		int best_makespan = current_makespan;
+    		long best_hash = 0;
+    		//swap whose neighbor is loaded in the evaluator (-1 : the current order)
+    		int loaded = -1;
+    		int s = index_of_min(estimates);
+    		while(s != -1 && (estimates[s] < best_makespan || (best_swap != -1 && estimates[s] == best_makespan)))
+    		{
+    			Swap swap = all_swaps.get(s);
+    			long neighbor_hash = current_hash ^ ZobristHash.delta(current_r_order, swap);
+    			
+    			//the makespan of a neighbor already evaluated (from a previous solution) is read from the cache
+    			int makespan = cache.get(neighbor_hash);
+    			if(makespan == -1)
+    			{
+    				swap.applyOn(current_r_order);
+    				boolean feasible = evaluator.load(current_r_order);
+    				makespan = feasible ? evaluator.makespan() : MakespanCache.INFEASIBLE;
+    				loaded = feasible ? s : -2;
+    				cache.put(neighbor_hash, makespan);
+    				metrics.decodes++;
+    				if(!feasible)
+    				{
+    					metrics.invalid++;
+    				}
+    				//applying the swap again restores the current order
+    				swap.applyOn(current_r_order);
+    			}
+    			
+    			if(makespan < best_makespan || (makespan == best_makespan && best_swap != -1 && s < best_swap))
+    			{
+    				best_swap = s;
+    				best_makespan = makespan;
+    				best_hash = neighbor_hash;
+    			}
+    			estimates[s] = Integer.MAX_VALUE;
+    			s = index_of_min(estimates);
+    		}
+    		
+    		if(best_swap != -1)
+    		{
+    			all_swaps.get(best_swap).applyOn(current_r_order);
+    			if(loaded != best_swap)
+    			{
+    				evaluator.load(current_r_order);
+    				metrics.decodes++;
+    			}
+    			current_makespan = best_makespan;
+    			current_hash = best_hash;
+    			metrics.iterations++;
+    			metrics.lastImprovementMs = SolverMetrics.elapsedMs(start);
+    			can_find_better = current_makespan > lower_bound;
+    		}
     	}
     	
-    	best_current_soluce = new Result(best_current_soluce.instance, current_r_order.toSchedule(), best_current_soluce.cause);
+    	Result.ExitCause cause = current_makespan <= lower_bound ? Result.ExitCause.ProvedOptimal : Result.ExitCause.Blocked;
+    	metrics.put("cache_hits", cache.getHits());
+    	metrics.put("cache_misses", cache.getMisses());
+    	best_current_soluce = new Result(best_current_soluce.instance, current_r_order.toSchedule(), cause, metrics);
     	
     	return best_current_soluce;
     }
@@ -165,7 +244,26 @@ public class DescentSolver implements Solver {
     {
     	Schedule soluce = order.toSchedule();
     	
-    	List<Task> path = soluce.criticalPath();
+    	//the decoder recorded the predecessor of each task : the path is read in linear time
+    	int [] path = new int[soluce.pb.numJobs * soluce.pb.numTasks];
+    	int length = soluce.criticalPath(path);
+    	
+    	return blocks_of_path(path, length, order);
+    }
+    
+    // Returns a list of all blocks of the critical path of the order loaded in the evaluator,
+    // without decoding the order again (path : buffer with room for all the tasks)
+    static List<Block> blocksOfCriticalPath(ResourceOrder order, HeadTailEvaluator evaluator, int [] path) 
+    {
+    	int length = evaluator.criticalPath(path);
+    	
+    	return blocks_of_path(path, length, order);
+    }
+    
+    // path : ids (job * numTasks + task) of the tasks of the critical path
+    static private List<Block> blocks_of_path(int [] path, int length, ResourceOrder order)
+    {
+    	Instance pb = order.instance;
     	
     	List<Block> result = new ArrayList<Block>();
     	
@@ -175,29 +273,27 @@ public class DescentSolver implements Solver {
     	int last_task_current_block = -1;
     	
     	int last_machine = -1;
-    	//int last_end_time = -1;
     	
-    	int [] current_state = new int[soluce.pb.numMachines];
+    	int [] current_state = new int[pb.numMachines];
     	
-    	for(int i = 0 ; i < soluce.pb.numMachines ; i++)
+    	for(int i = 0 ; i < pb.numMachines ; i++)
     	{
     		current_state[i] = -1;
     	}
     	
-    	for(int t = 0 ; t < path.size() ; t++)
+    	for(int t = 0 ; t < length ; t++)
     	{
-    		Task current_task = path.get(t);
-    		int current_machine = soluce.pb.machine(current_task);
-    		current_state[current_machine] = get_index_task(current_machine, current_task, order);
-    		//int current_start_time = soluce.startTime(current_task);
-    		//int current_end_time = soluce.endTime(current_task);
+    		int job = path[t] / pb.numTasks;
+    		int task = path[t] % pb.numTasks;
+    		int current_machine = pb.machine(job, task);
+    		//the resource order keeps the index of each task on its machine
+    		current_state[current_machine] = order.positionOf(job, task);
     		
-    		if(current_machine == last_machine) // && last_end_time == current_start_time-1
+    		if(current_machine == last_machine)
     		{
     			if(!is_in_block)
     			{
     				machine_current_block = current_machine;
-    				//first_task_current_block = t-1; //index in the path
     				first_task_current_block = current_state[current_machine]-1; //index in the machine
     				is_in_block = true;
     			}
@@ -206,7 +302,6 @@ public class DescentSolver implements Solver {
     		{
     			if(is_in_block)
     			{
-    				//last_task_current_block = t-1; //index in the path
     				last_task_current_block = current_state[last_machine]; //index in the machine
     				result.add(new Block(machine_current_block, first_task_current_block, last_task_current_block));
     				
@@ -215,12 +310,10 @@ public class DescentSolver implements Solver {
     		}
     		
     		last_machine = current_machine;
-    		//last_end_time = current_end_time;
     	}
     	
     	if(is_in_block)
     	{
-    		//last_task_current_block = path.size()-1; //index in the path
     		last_task_current_block = current_state[last_machine]; //index in the machine
 			result.add(new Block(machine_current_block, first_task_current_block, last_task_current_block));
 			
@@ -230,24 +323,17 @@ public class DescentSolver implements Solver {
         return result;
     }
     
-    
-    static private int get_index_task(int machine, Task task, ResourceOrder order)
+    //index of the smallest value of the array (the first one in case of tie), -1 if the array is empty
+    static int index_of_min(int [] values)
     {
     	int result = -1;
     	
-    	Task [] array = order.tasksByMachine[machine];
-    	
-    	int size = array.length;
-    	int t = 0 ;
-    	boolean not_found = true;
-    	while(not_found && t<size)
+    	for(int i = 0 ; i < values.length ; i++)
     	{
-    		if(array[t].job == task.job && array[t].task == task.task)
+    		if(result == -1 || values[i] < values[result])
     		{
-    			not_found = false;
-    			result = t;
+    			result = i;
     		}
-    		t++;
     	}
     	
     	return result;
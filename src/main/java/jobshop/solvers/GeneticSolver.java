@@ -0,0 +1,335 @@
+package jobshop.solvers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+import jobshop.AnytimeSolver;
+import jobshop.Instance;
+import jobshop.Result;
+import jobshop.Schedule;
+import jobshop.SearchControl;
+import jobshop.SolverMetrics;
+import jobshop.encodings.BatchMakespanEvaluator;
+import jobshop.encodings.JobNumbers;
+import jobshop.solvers.GreedySolver.Priorite;
+
+/** Island-model genetic algorithm over the JobNumbers encoding.
+ *
+ * Each island is a population evolved by its own thread :
+ * - parents are chosen by binary tournament ;
+ * - children are built with JOX (the genes of a random subset of jobs keep their positions from the first parent,
+ *   the other ones are taken in the order of the second parent) or PPX (each gene is taken from one of the parents,
+ *   chosen at random, in the order of this parent), which both keep the number of genes of each job ;
+ * - children are mutated by swapping two genes or by moving one gene to another position ;
+ * - a child replaces the worst individual of the population if it is better.
+ * A generation produces POPULATION_SIZE children from the population of its start, evaluates them together with a
+ * BatchMakespanEvaluator (which does not build the schedules), then inserts them in their order of production.
+ *
+ * Every MIGRATION_INTERVAL generations, an island sends a copy of its best individual to the next island (ring
+ * topology) through a mailbox : the receiver takes it when it checks its mailbox, nobody waits.
+ * The first population and the migrants are evaluated one at a time with JobNumbers.makespan().
+ */
+public class GeneticSolver implements AnytimeSolver {
+
+    private static final int POPULATION_SIZE = 50;
+    private static final double MUTATION_RATE = 0.3;
+    private static final int MIGRATION_INTERVAL = 20;
+
+    private final int numIslands;
+    private final long seed;
+
+    /** generations per second (over all islands) during the last call to solve */
+    private double generationsPerSecond;
+
+    public GeneticSolver(int numIslands) {
+        this(numIslands, 0);
+    }
+
+    public GeneticSolver(int numIslands, long seed) {
+        this.numIslands = numIslands;
+        this.seed = seed;
+    }
+
+    @Override
+    public Result solve(Instance instance, long deadline, SearchControl control) {
+        long start = System.nanoTime();
+
+        // one individual of each island is the greedy solution
+        Schedule greedy = new GreedySolver(Priorite.EST_LRPT).solve(instance, deadline).schedule;
+        control.offer(greedy);
+        int[] greedyChromosome = new JobNumbers(greedy).jobs;
+
+        List<Island> islands = new ArrayList<>();
+        SplittableRandom root = new SplittableRandom(seed);
+        for(int i = 0 ; i < numIslands ; i++) {
+            islands.add(new Island(instance, root.split(), greedyChromosome));
+        }
+        for(int i = 0 ; i < numIslands ; i++) {
+            islands.get(i).next = islands.get((i + 1) % numIslands);
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(numIslands);
+        long generations = 0;
+        Island best = null;
+        try {
+            List<Future<?>> runs = new ArrayList<>();
+            for(Island island : islands) {
+                runs.add(pool.submit(() -> island.evolve(deadline, control, start)));
+            }
+            for(Future<?> run : runs) {
+                run.get();
+            }
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        } finally {
+            pool.shutdownNow();
+        }
+        // islands are compared in a fixed order : in case of tie, the first island wins
+        SolverMetrics metrics = new SolverMetrics();
+        long migrations = 0;
+        for(Island island : islands) {
+            generations += island.generations;
+            metrics.decodes += island.decodes;
+            migrations += island.migrations;
+            metrics.addAllocatedBytes(island.allocatedBytes);
+            if(best == null || island.fitness[island.best] < best.fitness[best.best])
+                best = island;
+        }
+        generationsPerSecond = generations / Math.max(1e-9, (System.nanoTime() - start) / 1e9);
+        metrics.iterations = generations;
+        metrics.neighbors = generations * POPULATION_SIZE;
+        metrics.lastImprovementMs = best.lastImprovementMs;
+        metrics.put("migrations", migrations);
+
+        JobNumbers solution = new JobNumbers(instance);
+        System.arraycopy(best.population[best.best], 0, solution.jobs, 0, solution.jobs.length);
+        solution.nextToSet = solution.jobs.length;
+        Schedule schedule = solution.toSchedule();
+
+        Result.ExitCause cause = Result.ExitCause.Timeout;
+        if(schedule.makespan() <= instance.lowerBound())
+            cause = Result.ExitCause.ProvedOptimal;
+        else if(control.isCancelled())
+            cause = Result.ExitCause.Cancelled;
+        return new Result(instance, schedule, cause, metrics);
+    }
+
+    /** Number of generations per second (over all islands) during the last call to solve.
+     * A generation is the production of POPULATION_SIZE children. */
+    public double getGenerationsPerSecond() {
+        return generationsPerSecond;
+    }
+
+    /** A population and everything its thread needs. */
+    private static class Island {
+        final Instance instance;
+        final SplittableRandom random;
+
+        final int[][] population;
+        final int[] fitness;
+        int best;
+        long generations;
+
+        // metrics of the island
+        long decodes;
+        long migrations;
+        long lastImprovementMs = -1;
+        long allocatedBytes;
+
+        /** island receiving our migrants */
+        Island next;
+        /** last migrant received and not taken yet */
+        final AtomicReference<int[]> mailbox = new AtomicReference<>();
+
+        /** buffer of the chromosomes evaluated one at a time */
+        final JobNumbers offspring;
+        /** children of a generation, their evaluator and their makespans */
+        final int[][] children;
+        final BatchMakespanEvaluator batch;
+        final int[] childFitness;
+
+        // buffers of the crossovers
+        final boolean[] selected;
+        final int[] count;
+        final int[] seen1;
+        final int[] seen2;
+
+        Island(Instance instance, SplittableRandom random, int[] seedChromosome) {
+            this.instance = instance;
+            this.random = random;
+            int length = instance.numJobs * instance.numTasks;
+
+            offspring = new JobNumbers(instance);
+            offspring.nextToSet = length;
+            children = new int[POPULATION_SIZE][length];
+            batch = new BatchMakespanEvaluator(instance, POPULATION_SIZE);
+            childFitness = new int[POPULATION_SIZE];
+            selected = new boolean[instance.numJobs];
+            count = new int[instance.numJobs];
+            seen1 = new int[instance.numJobs];
+            seen2 = new int[instance.numJobs];
+
+            population = new int[POPULATION_SIZE][];
+            fitness = new int[POPULATION_SIZE];
+            population[0] = seedChromosome.clone();
+            for(int i = 1 ; i < POPULATION_SIZE ; i++) {
+                population[i] = seedChromosome.clone();
+                shuffle(population[i]);
+            }
+            for(int i = 0 ; i < POPULATION_SIZE ; i++) {
+                fitness[i] = makespan(population[i]);
+                if(fitness[i] < fitness[best])
+                    best = i;
+            }
+        }
+
+        void evolve(long deadline, SearchControl control, long start) {
+            long allocated = SolverMetrics.allocatedBytes();
+            int lowerBound = instance.lowerBound();
+            int published = Integer.MAX_VALUE;
+            while(fitness[best] > lowerBound && !control.shouldStop(deadline)) {
+                for(int k = 0 ; k < POPULATION_SIZE ; k++) {
+                    int[] p1 = population[tournament()];
+                    int[] p2 = population[tournament()];
+                    if(random.nextBoolean())
+                        jox(p1, p2, children[k]);
+                    else
+                        ppx(p1, p2, children[k]);
+                    if(random.nextDouble() < MUTATION_RATE)
+                        mutate(children[k]);
+                    batch.set(k, children[k]);
+                }
+                batch.evaluate(POPULATION_SIZE, childFitness);
+                decodes += POPULATION_SIZE;
+                for(int k = 0 ; k < POPULATION_SIZE ; k++) {
+                    insert(children[k], childFitness[k]);
+                }
+                generations++;
+
+                if(generations % MIGRATION_INTERVAL == 0)
+                    next.mailbox.set(population[best].clone());
+                int[] migrant = mailbox.getAndSet(null);
+                if(migrant != null) {
+                    insert(migrant, makespan(migrant));
+                    migrations++;
+                }
+
+                if(fitness[best] < published) {
+                    published = fitness[best];
+                    JobNumbers solution = new JobNumbers(instance);
+                    System.arraycopy(population[best], 0, solution.jobs, 0, solution.jobs.length);
+                    solution.nextToSet = solution.jobs.length;
+                    control.offer(solution.toSchedule());
+                    lastImprovementMs = SolverMetrics.elapsedMs(start);
+                }
+            }
+            allocatedBytes = allocated < 0 ? -1 : SolverMetrics.allocatedBytes() - allocated;
+        }
+
+        /** Makespan of the schedule encoded by the chromosome, without building it. */
+        int makespan(int[] chromosome) {
+            decodes++;
+            System.arraycopy(chromosome, 0, offspring.jobs, 0, chromosome.length);
+            return offspring.makespan();
+        }
+
+        /** Replaces the worst individual by a copy of the chromosome, if it is better. */
+        private void insert(int[] chromosome, int makespan) {
+            int worst = 0;
+            for(int i = 1 ; i < POPULATION_SIZE ; i++) {
+                if(fitness[i] > fitness[worst])
+                    worst = i;
+            }
+            if(makespan >= fitness[worst])
+                return;
+            System.arraycopy(chromosome, 0, population[worst], 0, chromosome.length);
+            fitness[worst] = makespan;
+            if(makespan < fitness[best])
+                best = worst;
+        }
+
+        /** Binary tournament : the better of two random individuals. */
+        private int tournament() {
+            int a = random.nextInt(POPULATION_SIZE);
+            int b = random.nextInt(POPULATION_SIZE);
+            return fitness[a] <= fitness[b] ? a : b;
+        }
+
+        /** Job-based order crossover, written in child. */
+        private void jox(int[] p1, int[] p2, int[] child) {
+            for(int j = 0 ; j < selected.length ; j++)
+                selected[j] = random.nextBoolean();
+            int from = 0;
+            for(int i = 0 ; i < p1.length ; i++) {
+                if(selected[p1[i]]) {
+                    child[i] = p1[i];
+                } else {
+                    while(selected[p2[from]])
+                        from++;
+                    child[i] = p2[from++];
+                }
+            }
+        }
+
+        /** Precedence preservative crossover, written in child. */
+        private void ppx(int[] p1, int[] p2, int[] child) {
+            Arrays.fill(count, 0);
+            Arrays.fill(seen1, 0);
+            Arrays.fill(seen2, 0);
+            int i1 = 0;
+            int i2 = 0;
+            for(int i = 0 ; i < child.length ; i++) {
+                // skip the genes of each parent that are already in the child
+                while(i1 < p1.length && seen1[p1[i1]] < count[p1[i1]])
+                    seen1[p1[i1++]]++;
+                while(i2 < p2.length && seen2[p2[i2]] < count[p2[i2]])
+                    seen2[p2[i2++]]++;
+
+                int job;
+                if(i2 == p2.length || (i1 < p1.length && random.nextBoolean())) {
+                    job = p1[i1++];
+                    seen1[job]++;
+                } else {
+                    job = p2[i2++];
+                    seen2[job]++;
+                }
+                child[i] = job;
+                count[job]++;
+            }
+        }
+
+        /** Swaps two genes or moves one gene to another position. */
+        private void mutate(int[] chromosome) {
+            int a = random.nextInt(chromosome.length);
+            int b = random.nextInt(chromosome.length);
+            if(random.nextBoolean()) {
+                int tmp = chromosome[a];
+                chromosome[a] = chromosome[b];
+                chromosome[b] = tmp;
+            } else {
+                int gene = chromosome[a];
+                if(a < b)
+                    System.arraycopy(chromosome, a + 1, chromosome, a, b - a);
+                else
+                    System.arraycopy(chromosome, b, chromosome, b + 1, a - b);
+                chromosome[b] = gene;
+            }
+        }
+
+        /** Fisher-Yates shuffle. */
+        private void shuffle(int[] array) {
+            for(int i = array.length - 1 ; i > 0 ; i--) {
+                int index = random.nextInt(i + 1);
+                int tmp = array[index];
+                array[index] = array[i];
+                array[i] = tmp;
+            }
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package jobshop.solvers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import jobshop.AnytimeSolver;
+import jobshop.Instance;
+import jobshop.Result;
+import jobshop.Schedule;
+import jobshop.SearchControl;
+import jobshop.SolverMetrics;
+import jobshop.encodings.ResourceOrder;
+import jobshop.solvers.GreedySolver.Priorite;
+
+/** Randomized multi-start greedy (GRASP construction phase).
+ *
+ * Until the deadline, every thread builds solutions with the priority rule where each task is drawn at random
+ * in a restricted candidate list (see GreedySolver), and keeps the best one. The deterministic greedy solution
+ * is the starting incumbent, so the result is never worse than the one of GreedySolver.
+ * All threads stop as soon as the lower bound of the instance is reached.
+ *
+ * Each thread has its own random generator, split from a fixed seed.
+ * Every improvement of a thread that is better than the incumbent is published in the SearchControl.
+ */
+public class GraspSolver implements AnytimeSolver {
+
+    private final Priorite prio;
+    /** 0 : only the tasks with the best priority are candidates, 1 : all realisable tasks are candidates */
+    private final double alpha;
+    private final int numThreads;
+    private final long seed;
+
+    /** number of solutions built per second during the last call to solve */
+    private double constructionsPerSecond;
+
+    public GraspSolver(Priorite prio, double alpha, int numThreads) {
+        this(prio, alpha, numThreads, 0);
+    }
+
+    public GraspSolver(Priorite prio, double alpha, int numThreads, long seed) {
+        this.prio = prio;
+        this.alpha = alpha;
+        this.numThreads = numThreads;
+        this.seed = seed;
+    }
+
+    /** Best solution found by one thread. */
+    private static class Best {
+        ResourceOrder order;
+        int makespan;
+        long constructions;
+        /** last time this thread improved the incumbent, in ms since the start of solve (-1 if never) */
+        long lastImprovementMs = -1;
+        long allocatedBytes;
+    }
+
+    @Override
+    public Result solve(Instance instance, long deadline, SearchControl control) {
+        long start = System.nanoTime();
+
+        ResourceOrder greedy = new GreedySolver(prio).build(instance, null, 0);
+        Schedule best = greedy.toSchedule();
+        long constructions = 1;
+        control.offer(best);
+        SolverMetrics metrics = new SolverMetrics();
+
+        ExecutorService pool = Executors.newFixedThreadPool(numThreads);
+        try {
+            SplittableRandom root = new SplittableRandom(seed);
+            List<Future<Best>> results = new ArrayList<>();
+            for(int t = 0 ; t < numThreads ; t++) {
+                SplittableRandom random = root.split();
+                results.add(pool.submit(() -> search(instance, deadline, control, random, start)));
+            }
+
+            // threads are merged in a fixed order : in case of tie, the first thread wins
+            for(Future<Best> result : results) {
+                Best threadBest = result.get();
+                constructions += threadBest.constructions;
+                metrics.lastImprovementMs = Math.max(metrics.lastImprovementMs, threadBest.lastImprovementMs);
+                metrics.addAllocatedBytes(threadBest.allocatedBytes);
+                if(threadBest.order != null && threadBest.makespan < best.makespan()) {
+                    best = threadBest.order.toSchedule();
+                }
+            }
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        double seconds = Math.max(1e-9, (System.nanoTime() - start) / 1e9);
+        constructionsPerSecond = constructions / seconds;
+        // every construction is a complete solution, evaluated once
+        metrics.iterations = constructions;
+        metrics.neighbors = constructions;
+        metrics.decodes = constructions;
+
+        Result.ExitCause cause = Result.ExitCause.Timeout;
+        if(best.makespan() <= instance.lowerBound())
+            cause = Result.ExitCause.ProvedOptimal;
+        else if(control.isCancelled())
+            cause = Result.ExitCause.Cancelled;
+        return new Result(instance, best, cause, metrics);
+    }
+
+    private Best search(Instance instance, long deadline, SearchControl control, SplittableRandom random, long start) {
+        long allocated = SolverMetrics.allocatedBytes();
+        GreedySolver builder = new GreedySolver(prio);
+        Best best = new Best();
+        best.makespan = Integer.MAX_VALUE;
+
+        int lowerBound = instance.lowerBound();
+        while(control.incumbentMakespan() > lowerBound && !control.shouldStop(deadline - 1)) {
+            ResourceOrder order = builder.build(instance, random, alpha);
+            int makespan = order.makespan();
+            best.constructions++;
+            if(makespan < best.makespan) {
+                best.order = order;
+                best.makespan = makespan;
+                // the schedule is only built for the solutions that may improve the incumbent
+                if(makespan < control.incumbentMakespan()) {
+                    control.offer(order.toSchedule());
+                    best.lastImprovementMs = SolverMetrics.elapsedMs(start);
+                }
+            }
+        }
+        best.allocatedBytes = allocated < 0 ? -1 : SolverMetrics.allocatedBytes() - allocated;
+        return best;
+    }
+
+    /** Number of solutions built per second (over all threads) during the last call to solve. */
+    public double getConstructionsPerSecond() {
+        return constructionsPerSecond;
+    }
+
+    public String getPriorite() {
+        return prio.toString();
+    }
+}
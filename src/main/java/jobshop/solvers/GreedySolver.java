@@ -1,17 +1,19 @@
 package jobshop.solvers;
 
-import java.util.ArrayList;
+import java.util.SplittableRandom;
 
 import jobshop.Instance;
 import jobshop.Result;
+import jobshop.Schedule;
 import jobshop.Solver;
-import jobshop.encodings.*;
+import jobshop.SolverMetrics;
+import jobshop.encodings.ResourceOrder;
 
 
 public class GreedySolver implements Solver {
 	
 	//recherche gloutonne base sur ResourceOrder
-	// 4 priorits au choix: SPT , LRPT , EST_SPT et EST_LRPT
+	// 8 priorits au choix: SPT , LPT , SRPT , LRPT et EST_SPT , EST_LPT , EST_SRPT , EST_LRPT
 	
 	/*
 	 * donne priorit  la tche...
@@ -23,24 +25,48 @@ public class GreedySolver implements Solver {
 	
 	private Priorite prio;
 	
-	// indicate for each task that have been scheduled, its start time
-	private int [][] startTimes;
+	// for each job, earliest time at which its next task can start (end of its last scheduled task)
+	private int[] releaseTimeOfJob;
 	
 	// for each machine, earliest time at which the machine can be used
     private int[] releaseTimeOfMachine;
+    
+    // taches realisables : la prochaine tache de chaque job, rangees par priorite dans un tas
+    // (identifiees par leur job)
+    private IndexedHeap realisable;
+    
+    // for each job, its next task to be scheduled
+    private int[] nextTask;
+    
+    // for each job, the rank at which its next task became realisable : in case of tie,
+    // the task that became realisable first is chosen
+    private int[] rank;
+    private int nextRank;
+    
+    // for each machine, the jobs whose next task executes on this machine
+    // (with EST rules, their priority changes with the release time of the machine)
+    private int[][] jobsOnMachine;
+    private int[] numbJobsOnMachine;
+    // for each job, its index in jobsOnMachine
+    private int[] indexOnMachine;
 	
 	public enum Priorite
 	{
 		SPT,
-		//LPT,
+		LPT,
 		LRPT,
-		//SRPT,
+		SRPT,
 		EST_SPT,
-		//EST_LPT,
+		EST_LPT,
 		EST_LRPT,
-		//EST_SRPT,
+		EST_SRPT,
 	}
 	
+	// GRASP : when random is not null, the next task is drawn at random in the restricted candidate list :
+	// the realisable tasks whose first priority key is within alpha * (worst - best) of the best one
+	private SplittableRandom random;
+	private double alpha;
+	
 	
 	public GreedySolver(Priorite prio)
 	{
@@ -49,167 +75,192 @@ public class GreedySolver implements Solver {
 
 	public Result solve(Instance instance, long deadline) 
 	{
+		Schedule schedule = build(instance, null, 0).toSchedule();
+		//the greedy solution can already reach the lower bound
+		Result.ExitCause cause = schedule.makespan() <= instance.lowerBound() ? Result.ExitCause.ProvedOptimal : Result.ExitCause.Blocked;
+		
+		//one iteration per task placed
+		SolverMetrics metrics = new SolverMetrics();
+		metrics.iterations = instance.numJobs * instance.numTasks;
+		metrics.decodes = 1;
+		return new Result(instance, schedule, cause, metrics);
+	}
+	
+	/** Builds a solution with the priority rule, randomized if random is not null (see GraspSolver). */
+	ResourceOrder build(Instance instance, SplittableRandom random, double alpha)
+	{
+		this.random = random;
+		this.alpha = alpha;
+		
 		ResourceOrder soluce = new ResourceOrder(instance);
 		
-		//pour les calculs de EST
-		startTimes = new int [instance.numJobs][instance.numTasks];
+		releaseTimeOfJob = new int[instance.numJobs];
 		releaseTimeOfMachine = new int[instance.numMachines];
+		realisable = new IndexedHeap(instance.numJobs);
+		nextTask = new int[instance.numJobs];
+		rank = new int[instance.numJobs];
+		jobsOnMachine = new int[instance.numMachines][instance.numJobs];
+		numbJobsOnMachine = new int[instance.numMachines];
+		indexOnMachine = new int[instance.numJobs];
 		
-		//liste des taches ralisables = soluce.nextFreeSlot
-		ArrayList<Task> realisable = new ArrayList<Task>();
-		//init
-		for(int j = 0; j< soluce.instance.numJobs ; j++)
+		//init : the first task of each job is realisable
+		nextRank = 0;
+		for(int j = 0; j< instance.numJobs ; j++)
 		{
-			realisable.add(new Task(j,0));
-		}
-		
-		//number of task ordered on each machine
-		for(int m = 0; m< soluce.instance.numMachines ; m++)
-		{
-			soluce.nextFreeSlot[m] = 0;
+			add_realisable(j, instance);
 		}
 		
 		while(!realisable.isEmpty())
 		{
-			Task task_prio = new Task(0, 0);
+			//task with the highest priority
+			int job = choose_job();
+			int task = nextTask[job];
+			int machine = instance.machine(job, task);
 			
-			if(prio == Priorite.SPT)
-			{
-				task_prio = choose_task_SPT(realisable, soluce.instance);
-			}
-			else if(prio == Priorite.LRPT)
-			{
-				task_prio = choose_task_LRPT(realisable, soluce.instance);
-			}
-			else if(prio == Priorite.EST_SPT || prio == Priorite.EST_LRPT)
+			//added after the tasks already ordered on this machine
+			soluce.addTask(machine, job, task);
+			remove_from_machine(job, machine);
+			
+			if(uses_est())
 			{
-				task_prio = choose_task_EST(realisable, soluce.instance);
+				int end = earliest_beginning(job, task, instance) + instance.duration(job, task);
+				releaseTimeOfJob[job] = end;
+				releaseTimeOfMachine[machine] = end;
+				
+				//the tasks waiting for this machine can start later now
+				for(int i = 0 ; i < numbJobsOnMachine[machine] ; i++)
+				{
+					set_priority(jobsOnMachine[machine][i], instance);
+				}
 			}
 			
-			int nb_machine = soluce.instance.machine(task_prio);
-			int range_next_task = soluce.nextFreeSlot[nb_machine];
-			
-			soluce.tasksByMachine[nb_machine][range_next_task] = task_prio;
-			
-			soluce.nextFreeSlot[nb_machine]++;
-			
-			realisable.remove(task_prio);
-			
-			if((task_prio.task + 1) != soluce.instance.numTasks)
+			nextTask[job]++;
+			if(nextTask[job] != instance.numTasks)
 			{
-				realisable.add(new Task(task_prio.job, task_prio.task+1));
+				add_realisable(job, instance);
 			}
 		}
 		
-		return new Result(instance, soluce.toSchedule(), Result.ExitCause.Blocked);
+		return soluce;
 	}
 	
-	private Task choose_task_EST(ArrayList<Task> list, Instance data)
+	private boolean uses_est()
 	{
-		Task result = new Task(0,0);
-		ArrayList<Task> sub_list = new ArrayList<Task>();
-		
-		int earliest_begin = earliest_beginning(list.get(0), data);
-		sub_list.add(list.get(0));
-		
-		for(int t = 1 ; t < list.size() ; t++)
+		return prio == Priorite.EST_SPT || prio == Priorite.EST_LPT || prio == Priorite.EST_LRPT || prio == Priorite.EST_SRPT;
+	}
+	
+	//removes the job of the next task to schedule from the realisable tasks
+	private int choose_job()
+	{
+		if(random == null || realisable.size() == 1)
 		{
-			int current_task_est = earliest_beginning(list.get(t), data);
-			
-			if(current_task_est == earliest_begin)
-			{
-				sub_list.add(list.get(t));
-			}
-			else if(current_task_est < earliest_begin)
-			{
-				sub_list.clear();
-				sub_list.add(list.get(t));
-				earliest_begin = current_task_est;
-			}
+			return realisable.pop();
 		}
 		
-		if(sub_list.size() == 1)
+		//restricted candidate list
+		int best = realisable.key1(realisable.peek());
+		int worst = best;
+		for(int i = 1 ; i < realisable.size() ; i++)
 		{
-			result = sub_list.get(0);
+			worst = Math.max(worst, realisable.key1(realisable.item(i)));
 		}
-		else
+		double limit = best + alpha * (worst - best);
+		
+		//reservoir sampling : uniform choice among the candidates, in a single pass
+		int chosen = -1;
+		int numb_candidates = 0;
+		for(int i = 0 ; i < realisable.size() ; i++)
 		{
-			if(prio == Priorite.EST_SPT)
-			{
-				result = choose_task_SPT(sub_list, data);
-			}
-			else if(prio == Priorite.EST_LRPT)
+			int job = realisable.item(i);
+			if(realisable.key1(job) <= limit && random.nextInt(++numb_candidates) == 0)
 			{
-				result = choose_task_LRPT(sub_list, data);
+				chosen = job;
 			}
-			
 		}
 		
-		startTimes[result.job][result.task] = earliest_begin;
-		releaseTimeOfMachine[data.machine(result)] = earliest_begin + data.duration(result);
-		
-		return result;
+		realisable.remove(chosen);
+		return chosen;
 	}
 	
-	private int earliest_beginning(Task t, Instance data)
+	//the next task of the job becomes realisable
+	private void add_realisable(int job, Instance data)
 	{
-        int est = t.task == 0 ? 0 : startTimes[t.job][t.task-1] + data.duration(t.job, t.task-1);
-        est = Math.max(est, releaseTimeOfMachine[data.machine(t)]);
-        
-		return est;
+		rank[job] = nextRank++;
+		
+		int machine = data.machine(job, nextTask[job]);
+		indexOnMachine[job] = numbJobsOnMachine[machine];
+		jobsOnMachine[machine][numbJobsOnMachine[machine]++] = job;
+		
+		set_priority(job, data);
 	}
 	
-	private Task choose_task_SPT(ArrayList<Task> list, Instance data)
+	private void remove_from_machine(int job, int machine)
 	{
-		//priorit  la tache la plus courte
-		Task result = list.get(0);
-		int shortest_duration = data.duration(result);
-		
-		for(int i = 1 ; i<list.size() ; i++)
-		{
-			Task current_task = list.get(i);
-			int current_duration = data.duration(current_task);
-			
-			if(current_duration < shortest_duration)
-			{
-				result = current_task;
-				shortest_duration = current_duration;
-			}
-		}
-		
-		return result;
+		//the last job of the machine takes its place
+		int last = jobsOnMachine[machine][--numbJobsOnMachine[machine]];
+		jobsOnMachine[machine][indexOnMachine[job]] = last;
+		indexOnMachine[last] = indexOnMachine[job];
 	}
 	
-	private Task choose_task_LRPT(ArrayList<Task> list, Instance data)
+	//(re)computes the priority of the next task of the job : the smallest keys are chosen first
+	private void set_priority(int job, Instance data)
 	{
-		//priorit  la tache appartenant au job ayant la plus grande dure
+		int task = nextTask[job];
+		int duration = data.duration(job, task);
+		//remaining work of the job from this task, precomputed by the instance
+		int remaining = data.remainingWork(job, task);
 		
-		Task result = list.get(0);
-		int longuest_duration_in_job = data.duration(result);
-		
-		for(int i_task=result.task ; i_task < data.numTasks ; i_task++)
+		int key1 = 0;
+		int key2 = 0;
+		switch(prio)
 		{
-			longuest_duration_in_job += data.duration(result.job, i_task);
+			case SPT:
+				//priorite a la tache la plus courte
+				key1 = duration;
+				break;
+			case LPT:
+				//priorite a la tache la plus longue
+				key1 = -duration;
+				break;
+			case SRPT:
+				//priorite a la tache appartenant au job ayant la plus petite duree restante
+				key1 = remaining;
+				break;
+			case LRPT:
+				//priorite a la tache appartenant au job ayant la plus grande duree restante
+				key1 = -remaining;
+				break;
+			case EST_SPT:
+				key1 = earliest_beginning(job, task, data);
+				key2 = duration;
+				break;
+			case EST_LPT:
+				key1 = earliest_beginning(job, task, data);
+				key2 = -duration;
+				break;
+			case EST_SRPT:
+				key1 = earliest_beginning(job, task, data);
+				key2 = remaining;
+				break;
+			case EST_LRPT:
+				key1 = earliest_beginning(job, task, data);
+				key2 = -remaining;
+				break;
 		}
 		
-		for(int i = 1 ; i<list.size() ; i++)
+		if(realisable.contains(job))
 		{
-			Task current_task = list.get(i);
-			int current_duration = data.duration(current_task);
-			
-			for(int i_task=current_task.task ; i_task < data.numTasks ; i_task++)
-			{
-				current_duration += data.duration(current_task.job, i_task);
-			}
-			
-			if(current_duration > longuest_duration_in_job)
-			{
-				result = current_task;
-				longuest_duration_in_job = current_duration;
-			}
+			realisable.update(job, key1, key2, rank[job]);
 		}
-		
-		return result;
+		else
+		{
+			realisable.push(job, key1, key2, rank[job]);
+		}
+	}
+	
+	private int earliest_beginning(int job, int task, Instance data)
+	{
+		return Math.max(releaseTimeOfJob[job], releaseTimeOfMachine[data.machine(job, task)]);
 	}
 	
 	public String getPriorite()
@@ -0,0 +1,203 @@
+package jobshop.solvers;
+
+import jobshop.Instance;
+import jobshop.encodings.ResourceOrder;
+import jobshop.solvers.DescentSolver.Swap;
+
+/** Evaluates the swaps of the critical-block neighborhood without building a schedule.
+ *
+ * For every task of a ResourceOrder, it keeps the head (earliest start time, i.e. longest path
+ * from the source of the disjunctive graph) and the tail (longest path from the end of the task
+ * to the sink). The makespan of a neighbor obtained by swapping two adjacent tasks u and v of a
+ * machine is then estimated by recomputing the heads and tails of u and v only (Taillard, 1994).
+ *
+ * As long as the swap does not create a cycle (which is always the case for two adjacent tasks
+ * of a critical path), the estimate is exactly the length of the longest path going through
+ * u or v in the neighbor, hence a lower bound of its makespan.
+ *
+ * The order may be partial (machines with fewer tasks than jobs, see ResourceOrder.nextFreeSlot) : only the
+ * sequenced tasks of each machine are then linked, which gives the heads and tails of the relaxed problem.
+ *
+ * Tasks are identified by id = job * numTasks + task.
+ */
+class HeadTailEvaluator {
+
+    private final int numJobs;
+    private final int numTasks;
+    private final int numMachines;
+
+    /** duration of each task */
+    private final int[] duration;
+
+    /** earliest start time of each task */
+    private final int[] head;
+    /** length of the longest path from the end of each task to the end of the schedule */
+    private final int[] tail;
+    /** predecessor (on the job or on the machine) whose end time gives the head of each task, -1 if the head is 0 */
+    private final int[] binding;
+
+    /** previous and next task on the same machine (-1 if none) */
+    private final int[] machinePred;
+    private final int[] machineSucc;
+
+    /** scratch arrays of the topological sort */
+    private final int[] topologicalOrder;
+    private final int[] inDegree;
+
+    private int makespan;
+
+    HeadTailEvaluator(Instance instance) {
+        this.numJobs = instance.numJobs;
+        this.numTasks = instance.numTasks;
+        this.numMachines = instance.numMachines;
+
+        int size = numJobs * numTasks;
+        duration = new int[size];
+        for(int j = 0 ; j < numJobs ; j++) {
+            for(int t = 0 ; t < numTasks ; t++) {
+                duration[j * numTasks + t] = instance.duration(j, t);
+            }
+        }
+        head = new int[size];
+        tail = new int[size];
+        binding = new int[size];
+        machinePred = new int[size];
+        machineSucc = new int[size];
+        topologicalOrder = new int[size];
+        inDegree = new int[size];
+    }
+
+    /** Computes the heads and tails of all tasks of the given (possibly partial) resource order.
+     * Returns false if the order contains a cycle (the heads and tails are then meaningless). */
+    boolean load(ResourceOrder order) {
+        for(int m = 0 ; m < numMachines ; m++) {
+            int sequenced = order.nextFreeSlot[m];
+            if(sequenced < numJobs) {
+                // tasks that are not placed yet have no machine neighbor
+                for(int j = 0 ; j < numJobs ; j++) {
+                    int id = j * numTasks + order.instance.task_with_machine(j, m);
+                    machinePred[id] = -1;
+                    machineSucc[id] = -1;
+                }
+            }
+            for(int i = 0 ; i < sequenced ; i++) {
+                int id = order.taskId(m, i);
+                machinePred[id] = i > 0 ? order.taskId(m, i-1) : -1;
+                machineSucc[id] = i < sequenced - 1 ? order.taskId(m, i+1) : -1;
+            }
+        }
+
+        // Kahn's algorithm : topologicalOrder is also used as the queue of ready tasks
+        int end = 0;
+        for(int id = 0 ; id < inDegree.length ; id++) {
+            inDegree[id] = (id % numTasks > 0 ? 1 : 0) + (machinePred[id] != -1 ? 1 : 0);
+            if(inDegree[id] == 0)
+                topologicalOrder[end++] = id;
+        }
+        for(int next = 0 ; next < end ; next++) {
+            int id = topologicalOrder[next];
+            if(id % numTasks < numTasks - 1 && --inDegree[id + 1] == 0)
+                topologicalOrder[end++] = id + 1;
+            int succ = machineSucc[id];
+            if(succ != -1 && --inDegree[succ] == 0)
+                topologicalOrder[end++] = succ;
+        }
+        if(end < inDegree.length) {
+            // some tasks were never ready : there is a cycle
+            return false;
+        }
+
+        makespan = 0;
+        for(int i = 0 ; i < end ; i++) {
+            int id = topologicalOrder[i];
+            int jobEnd = endOf(jobPred(id));
+            int machineEnd = endOf(machinePred[id]);
+            head[id] = Math.max(jobEnd, machineEnd);
+            binding[id] = head[id] == 0 ? -1 : (jobEnd == head[id] ? jobPred(id) : machinePred[id]);
+            makespan = Math.max(makespan, head[id] + duration[id]);
+        }
+        for(int i = end - 1 ; i >= 0 ; i--) {
+            int id = topologicalOrder[i];
+            tail[id] = Math.max(pathFrom(jobSucc(id)), pathFrom(machineSucc[id]));
+        }
+        return true;
+    }
+
+    /** Exact makespan of the last resource order that was successfully loaded. */
+    int makespan() {
+        return makespan;
+    }
+
+    /** Earliest start time of the task in the loaded order. */
+    int head(int id) {
+        return head[id];
+    }
+
+    /** Length of the longest path from the end of the task to the end of the schedule in the loaded order. */
+    int tail(int id) {
+        return tail[id];
+    }
+
+    /** Writes the ids of the tasks of a critical path of the loaded order in the buffer, from the first
+     * to the last one, and returns its length (same path as Schedule.criticalPath()). */
+    int criticalPath(int[] buffer) {
+        // select the last task of a job with the greatest end time
+        int last = numTasks - 1;
+        for(int j = 1 ; j < numJobs ; j++) {
+            int id = j * numTasks + numTasks - 1;
+            if(endOf(id) > endOf(last))
+                last = id;
+        }
+
+        int length = 0;
+        for(int id = last ; id != -1 ; id = binding[id]) {
+            length++;
+        }
+        int i = length;
+        for(int id = last ; id != -1 ; id = binding[id]) {
+            buffer[--i] = id;
+        }
+        return length;
+    }
+
+    /** Estimates the makespan of the neighbor obtained by applying the given swap on the
+     * (loaded) resource order. The two tasks of the swap must be adjacent on their machine. */
+    int estimate(Swap swap, ResourceOrder order) {
+        int first = Math.min(swap.t1, swap.t2);
+        int second = Math.max(swap.t1, swap.t2);
+        assert second == first + 1;
+
+        // u is executed before v in the loaded order, after v in the neighbor
+        int u = order.taskId(swap.machine, first);
+        int v = order.taskId(swap.machine, second);
+        int pm = machinePred[u];
+        int sm = machineSucc[v];
+
+        // new heads : v now comes right after the machine predecessor of u
+        int headV = Math.max(endOf(jobPred(v)), endOf(pm));
+        int headU = Math.max(endOf(jobPred(u)), headV + duration[v]);
+        // new tails : u now comes right before the machine successor of v
+        int tailU = Math.max(pathFrom(jobSucc(u)), pathFrom(sm));
+        int tailV = Math.max(pathFrom(jobSucc(v)), tailU + duration[u]);
+
+        return Math.max(headV + duration[v] + tailV, headU + duration[u] + tailU);
+    }
+
+    private int jobPred(int id) {
+        return id % numTasks > 0 ? id - 1 : -1;
+    }
+
+    private int jobSucc(int id) {
+        return id % numTasks < numTasks - 1 ? id + 1 : -1;
+    }
+
+    /** end time of the task, 0 if there is no task */
+    private int endOf(int id) {
+        return id == -1 ? 0 : head[id] + duration[id];
+    }
+
+    /** length of the longest path from the start of the task to the end of the schedule, 0 if there is no task */
+    private int pathFrom(int id) {
+        return id == -1 ? 0 : duration[id] + tail[id];
+    }
+}
@@ -0,0 +1,142 @@
+package jobshop.solvers;
+
+/** Min-heap of integer items (0 <= item < capacity), ordered by the keys (key1, key2, key3) of each item.
+ *
+ * The heap knows the position of every item it contains, so the keys of an item can be changed
+ * in O(log n) and any item can be removed in O(log n).
+ */
+class IndexedHeap {
+
+    private final int[] heap;
+    /** position of each item in the heap, -1 if it is not in the heap */
+    private final int[] position;
+    private final int[] key1;
+    private final int[] key2;
+    private final int[] key3;
+    private int size = 0;
+
+    IndexedHeap(int capacity) {
+        heap = new int[capacity];
+        position = new int[capacity];
+        key1 = new int[capacity];
+        key2 = new int[capacity];
+        key3 = new int[capacity];
+        java.util.Arrays.fill(position, -1);
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    boolean contains(int item) {
+        return position[item] != -1;
+    }
+
+    /** i-th item of the heap (0 <= i < size), in no particular order except that item(0) is the smallest. */
+    int item(int i) {
+        return heap[i];
+    }
+
+    int key1(int item) {
+        return key1[item];
+    }
+
+    int key2(int item) {
+        return key2[item];
+    }
+
+    /** Smallest item of the heap. */
+    int peek() {
+        return heap[0];
+    }
+
+    void push(int item, int k1, int k2, int k3) {
+        heap[size] = item;
+        position[item] = size;
+        size++;
+        setKeys(item, k1, k2, k3);
+        siftUp(position[item]);
+    }
+
+    /** Changes the keys of an item that is in the heap. */
+    void update(int item, int k1, int k2, int k3) {
+        setKeys(item, k1, k2, k3);
+        siftUp(position[item]);
+        siftDown(position[item]);
+    }
+
+    /** Removes and returns the smallest item. */
+    int pop() {
+        int top = heap[0];
+        remove(top);
+        return top;
+    }
+
+    /** Removes an item that is in the heap. */
+    void remove(int item) {
+        int i = position[item];
+        size--;
+        position[item] = -1;
+        if(i != size) {
+            heap[i] = heap[size];
+            position[heap[i]] = i;
+            siftUp(i);
+            siftDown(position[heap[i]]);
+        }
+    }
+
+    void clear() {
+        for(int i = 0 ; i < size ; i++) {
+            position[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    private void setKeys(int item, int k1, int k2, int k3) {
+        key1[item] = k1;
+        key2[item] = k2;
+        key3[item] = k3;
+    }
+
+    private boolean less(int a, int b) {
+        if(key1[a] != key1[b])
+            return key1[a] < key1[b];
+        if(key2[a] != key2[b])
+            return key2[a] < key2[b];
+        return key3[a] < key3[b];
+    }
+
+    private void siftUp(int i) {
+        int item = heap[i];
+        while(i > 0) {
+            int parent = (i - 1) / 2;
+            if(!less(item, heap[parent]))
+                break;
+            heap[i] = heap[parent];
+            position[heap[i]] = i;
+            i = parent;
+        }
+        heap[i] = item;
+        position[item] = i;
+    }
+
+    private void siftDown(int i) {
+        int item = heap[i];
+        while(2 * i + 1 < size) {
+            int child = 2 * i + 1;
+            if(child + 1 < size && less(heap[child + 1], heap[child]))
+                child++;
+            if(!less(heap[child], item))
+                break;
+            heap[i] = heap[child];
+            position[heap[i]] = i;
+            i = child;
+        }
+        heap[i] = item;
+        position[item] = i;
+    }
+}
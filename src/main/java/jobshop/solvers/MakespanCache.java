@@ -0,0 +1,76 @@
+package jobshop.solvers;
+
+import java.util.Arrays;
+
+/** Bounded cache of the makespans of the solutions already evaluated, by Zobrist hash (see ZobristHash).
+ *
+ * The cache is a direct-mapped table : a hash has a single slot, and a new entry evicts the one in its slot.
+ * Two different orders with the same 64-bit hash would be confused, which is negligible at the sizes we search.
+ * The hits and misses of get() are counted to size the cache.
+ */
+public class MakespanCache {
+
+    /** makespan stored for the orders that contain a cycle */
+    public static final int INFEASIBLE = Integer.MAX_VALUE;
+
+    private final long[] hashes;
+    /** -1 for an empty slot */
+    private final int[] makespans;
+    private final int mask;
+
+    private long hits;
+    private long misses;
+
+    /** capacity : maximal number of entries, rounded up to a power of two */
+    public MakespanCache(int capacity) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        hashes = new long[size];
+        makespans = new int[size];
+        Arrays.fill(makespans, -1);
+        mask = size - 1;
+    }
+
+    /** Makespan stored for this hash, or -1 if it is not in the cache. */
+    public int get(long hash) {
+        int slot = slot(hash);
+        if(makespans[slot] != -1 && hashes[slot] == hash) {
+            hits++;
+            return makespans[slot];
+        }
+        misses++;
+        return -1;
+    }
+
+    public void put(long hash, int makespan) {
+        int slot = slot(hash);
+        hashes[slot] = hash;
+        makespans[slot] = makespan;
+    }
+
+    /** Empties the cache, the hits and misses are still counted. */
+    public void clear() {
+        Arrays.fill(makespans, -1);
+    }
+
+    private int slot(long hash) {
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    public int capacity() {
+        return makespans.length;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    /** Part of the calls to get() that found their hash (0 if get() was never called). */
+    public double getHitRate() {
+        long calls = hits + misses;
+        return calls == 0 ? 0 : (double) hits / calls;
+    }
+}
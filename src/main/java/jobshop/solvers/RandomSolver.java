@@ -3,37 +3,134 @@ package jobshop.solvers;
 import jobshop.*;
 import jobshop.encodings.JobNumbers;
 
-import java.util.Optional;
-import java.util.Random;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+/** Random sampling of JobNumbers solutions until the deadline.
+ *
+ * Each thread runs an independent sampling stream, with its own SplittableRandom (split from a fixed seed)
+ * and its own sample : a sample is only evaluated by its makespan (JobNumbers.makespan(), which does not build
+ * the schedule), and the chromosome is copied when it improves the best one of the stream. The Schedule is only built for the best solution of all streams. */
 public class RandomSolver implements Solver {
 
+    private final int numThreads;
+    private final long seed;
+
+    /** number of samples evaluated per second (over all streams) during the last call to solve */
+    private double samplesPerSecond;
+
+    /** One stream per core. */
+    public RandomSolver() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public RandomSolver(int numThreads) {
+        this(numThreads, 0);
+    }
+
+    public RandomSolver(int numThreads, long seed) {
+        this.numThreads = numThreads;
+        this.seed = seed;
+    }
+
     @Override
     public Result solve(Instance instance, long deadline) {
-        Random generator = new Random(0);
+        long start = System.nanoTime();
+        SplittableRandom root = new SplittableRandom(seed);
+        List<Stream> streams = new ArrayList<>();
+        for(int i = 0 ; i < numThreads ; i++) {
+            streams.add(new Stream(instance, root.split()));
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(numThreads);
+        try {
+            List<Future<?>> runs = new ArrayList<>();
+            for(Stream stream : streams) {
+                runs.add(pool.submit(() -> stream.run(deadline, start)));
+            }
+            for(Future<?> run : runs) {
+                run.get();
+            }
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        } finally {
+            pool.shutdownNow();
+        }
 
+        // in case of tie, the first stream wins
+        Stream best = streams.get(0);
+        long samples = 0;
+        SolverMetrics metrics = new SolverMetrics();
+        for(Stream stream : streams) {
+            samples += stream.samples;
+            metrics.addAllocatedBytes(stream.allocatedBytes);
+            if(stream.bestMakespan < best.bestMakespan)
+                best = stream;
+        }
+        samplesPerSecond = samples / Math.max(1e-9, (System.nanoTime() - start) / 1e9);
+        // every sample is a complete solution, evaluated once
+        metrics.iterations = samples;
+        metrics.neighbors = samples;
+        metrics.decodes = samples;
+        metrics.lastImprovementMs = best.lastImprovementMs;
         JobNumbers sol = new JobNumbers(instance);
+        System.arraycopy(best.best, 0, sol.jobs, 0, sol.jobs.length);
+        sol.nextToSet = sol.jobs.length;
+
+        return new Result(instance, sol.toSchedule(), Result.ExitCause.Timeout, metrics);
+    }
+
+    /** Number of samples evaluated per second (over all streams) during the last call to solve. */
+    public double getSamplesPerSecond() {
+        return samplesPerSecond;
+    }
+
+    /** An independent sampling stream. */
+    private static class Stream {
+        final SplittableRandom random;
+
+        final JobNumbers sample;
+        final int[] best;
+        int bestMakespan;
+        long samples;
+        long lastImprovementMs = -1;
+        long allocatedBytes;
 
-        for(int j = 0 ; j<instance.numJobs ; j++) {
-            for(int t = 0 ; t<instance.numTasks ; t++) {
-                sol.jobs[sol.nextToSet++] = j;
+        Stream(Instance instance, SplittableRandom random) {
+            this.random = random;
+            sample = new JobNumbers(instance);
+            for(int j = 0 ; j<instance.numJobs ; j++) {
+                for(int t = 0 ; t<instance.numTasks ; t++) {
+                    sample.jobs[sample.nextToSet++] = j;
+                }
             }
+
+            best = sample.jobs.clone();
+            bestMakespan = sample.makespan();
         }
-        Schedule best = sol.toSchedule();
-        while(deadline - System.currentTimeMillis() > 1) {
-            shuffleArray(sol.jobs, generator);
-            Schedule s = sol.toSchedule();
-            if(s.makespan() < best.makespan()) {
-                best = s;
+
+        void run(long deadline, long start) {
+            long allocated = SolverMetrics.allocatedBytes();
+            while(deadline - System.currentTimeMillis() > 1) {
+                shuffleArray(sample.jobs, random);
+                int makespan = sample.makespan();
+                samples++;
+                if(makespan < bestMakespan) {
+                    bestMakespan = makespan;
+                    System.arraycopy(sample.jobs, 0, best, 0, best.length);
+                    lastImprovementMs = SolverMetrics.elapsedMs(start);
+                }
             }
+            allocatedBytes = allocated < 0 ? -1 : SolverMetrics.allocatedBytes() - allocated;
         }
-
-
-        return new Result(instance, best, Result.ExitCause.Timeout);
     }
 
     /** Simple Fisher–Yates array shuffling */
-    private static void shuffleArray(int[] array, Random random)
+    private static void shuffleArray(int[] array, SplittableRandom random)
     {
         int index;
         for (int i = array.length - 1; i > 0; i--)
@@ -48,5 +145,3 @@ public class RandomSolver implements Solver {
         }
     }
 }
-
-
@@ -0,0 +1,196 @@
+package jobshop.solvers;
+
+import jobshop.Instance;
+import jobshop.Result;
+import jobshop.Schedule;
+import jobshop.Solver;
+import jobshop.SolverMetrics;
+import jobshop.encodings.ResourceOrder;
+import jobshop.solvers.GreedySolver.Priorite;
+
+/** Shifting bottleneck heuristic (Adams, Balas and Zawack, 1988).
+ *
+ * Machines are sequenced one at a time. At each step, the heads and tails of the tasks are computed in the
+ * disjunctive graph that only contains the machines already sequenced. For each other machine, the one-machine
+ * problem with these heads and tails is solved with Carlier's algorithm (exact, up to a number of nodes) ;
+ * the machine with the greatest value is the bottleneck and keeps this sequence. The machines sequenced before
+ * are then re-optimized one by one : a machine only takes its new sequence if it is strictly better than its
+ * current one for the same heads and tails.
+ *
+ * Schrage's rule (the available task with the longest tail first) never orders two tasks against a path of the graph,
+ * but an optimal sequence may : a sequence that closes a cycle is replaced by the one of Schrage's rule for a new
+ * bottleneck, and discarded for a re-optimized machine. The result is always acyclic.
+ *
+ * When the instance is too large for Carlier's algorithm to explore MIN_NODES nodes per problem, Schrage's rule is
+ * used alone, and a re-optimized machine always takes its new sequence : on the large instances, keeping the current
+ * sequence unless it is improved leaves the machines sequenced first with their early sequences, and gives worse
+ * schedules. Otherwise the heuristic is also run with Schrage's rule alone, and the best schedule is returned.
+ *
+ * At the deadline, Carlier's algorithm stops branching, and the remaining machines take the sequences of Schrage's
+ * rule in the order of their numbers, without re-optimization.
+ */
+public class ShiftingBottleneckSolver implements Solver {
+
+    /** nodes of Carlier's algorithm for one one-machine problem : enough to solve most of them */
+    private static final int MAX_NODES = 200;
+    /** a node costs O(n^2) for n jobs : above 70 jobs, the number of nodes is limited to MAX_WORK / n^2
+     * (down to Schrage's rule alone from 1000 jobs) */
+    private static final int MAX_WORK = 1_000_000;
+    /** below this number of nodes, Carlier's algorithm is not used (see the comment of the class) */
+    private static final int MIN_NODES = 10;
+
+    /** number of passes of re-optimization on the machines already sequenced, after each new bottleneck */
+    private final int reoptimizationPasses;
+
+    public ShiftingBottleneckSolver() {
+        this(1);
+    }
+
+    public ShiftingBottleneckSolver(int reoptimizationPasses) {
+        this.reoptimizationPasses = reoptimizationPasses;
+    }
+
+    @Override
+    public Result solve(Instance instance, long deadline) {
+        SolverMetrics metrics = new SolverMetrics();
+        int maxNodes = maxNodes(instance);
+        Schedule schedule = build(instance, deadline, maxNodes, metrics).toSchedule();
+        metrics.decodes++;
+        if(schedule != null && maxNodes > 1 && System.currentTimeMillis() < deadline) {
+            // a better sequence for each machine does not always give a better schedule
+            Schedule schrage = build(instance, deadline, 1, metrics).toSchedule();
+            metrics.decodes++;
+            if(schrage != null && schrage.makespan() < schedule.makespan())
+                schedule = schrage;
+        }
+        if(schedule == null) {
+            // should not happen, see the comment of the class
+            return new GreedySolver(Priorite.EST_LRPT).solve(instance, deadline);
+        }
+        Result.ExitCause cause = schedule.makespan() <= instance.lowerBound() ? Result.ExitCause.ProvedOptimal : Result.ExitCause.Blocked;
+        return new Result(instance, schedule, cause, metrics);
+    }
+
+    /** Builds the complete resource order of the heuristic. */
+    public ResourceOrder build(Instance instance) {
+        return build(instance, Long.MAX_VALUE, maxNodes(instance), new SolverMetrics());
+    }
+
+    /** Nodes of Carlier's algorithm per one-machine problem, 1 for Schrage's rule alone. */
+    private static int maxNodes(Instance instance) {
+        int maxNodes = Math.min(MAX_NODES, MAX_WORK / (instance.numJobs * instance.numJobs));
+        return maxNodes >= MIN_NODES ? maxNodes : 1;
+    }
+
+    /** maxNodes : nodes of Carlier's algorithm per one-machine problem ; with 1 node (Schrage's rule alone), a
+     * re-optimized machine always takes its new sequence.
+     * metrics : one iteration per machine sequenced, one neighbor per one-machine problem solved,
+     * one decode per computation of the heads and tails ; the nodes of Carlier's algorithm are in extra(). */
+    private ResourceOrder build(Instance instance, long deadline, int maxNodes, SolverMetrics metrics) {
+        ResourceOrder order = new ResourceOrder(instance);
+        HeadTailEvaluator evaluator = new HeadTailEvaluator(instance);
+        Carlier carlier = new Carlier(instance.numJobs, maxNodes);
+        Carlier schrage = maxNodes == 1 ? carlier : new Carlier(instance.numJobs, 1);
+        long nodes = metrics.extra().getOrDefault("one_machine_nodes", 0).longValue();
+
+        // one-machine problem of a machine, indexed by job
+        int[] head = new int[instance.numJobs];
+        int[] duration = new int[instance.numJobs];
+        int[] tail = new int[instance.numJobs];
+        int[] bestSequence = new int[instance.numJobs];
+        int[] bestSchrageSequence = new int[instance.numJobs];
+        int[] previous = new int[instance.numJobs];
+        boolean[] sequenced = new boolean[instance.numMachines];
+        // machines in the order in which they were sequenced
+        int[] sequencedMachines = new int[instance.numMachines];
+
+        for(int step = 0 ; step < instance.numMachines ; step++) {
+            evaluator.load(order);
+            metrics.iterations++;
+            metrics.decodes++;
+
+            if(System.currentTimeMillis() >= deadline) {
+                // Schrage's rule for the next machine, without looking for the bottleneck
+                int m = 0;
+                while(sequenced[m])
+                    m++;
+                loadProblem(instance, evaluator, m, head, duration, tail);
+                schrage.solve(instance.numJobs, head, duration, tail);
+                metrics.neighbors++;
+                setSequence(instance, order, m, schrage.sequence);
+                sequenced[m] = true;
+                continue;
+            }
+
+            // bottleneck : the unsequenced machine with the greatest one-machine value
+            int bottleneck = -1;
+            int bottleneckValue = -1;
+            for(int m = 0 ; m < instance.numMachines ; m++) {
+                if(sequenced[m])
+                    continue;
+                loadProblem(instance, evaluator, m, head, duration, tail);
+                int value = carlier.solve(instance.numJobs, head, duration, tail, deadline);
+                nodes += carlier.getNodes();
+                metrics.neighbors++;
+                if(value > bottleneckValue) {
+                    bottleneck = m;
+                    bottleneckValue = value;
+                    System.arraycopy(carlier.sequence, 0, bestSequence, 0, instance.numJobs);
+                    System.arraycopy(carlier.schrageSequence, 0, bestSchrageSequence, 0, instance.numJobs);
+                }
+            }
+            setSequence(instance, order, bottleneck, bestSequence);
+            metrics.decodes++;
+            if(!evaluator.load(order)) {
+                order.clearMachine(bottleneck);
+                setSequence(instance, order, bottleneck, bestSchrageSequence);
+            }
+            sequenced[bottleneck] = true;
+            sequencedMachines[step] = bottleneck;
+
+            // re-optimization of the machines sequenced before, each one given the sequences of all the others
+            for(int pass = 0 ; pass < reoptimizationPasses ; pass++) {
+                for(int k = 0 ; k < step && System.currentTimeMillis() < deadline ; k++) {
+                    int m = sequencedMachines[k];
+                    for(int i = 0 ; i < instance.numJobs ; i++) {
+                        previous[i] = order.taskId(m, i) / instance.numTasks;
+                    }
+                    order.clearMachine(m);
+                    evaluator.load(order);
+                    metrics.decodes++;
+                    loadProblem(instance, evaluator, m, head, duration, tail);
+                    int value = carlier.solve(instance.numJobs, head, duration, tail, deadline);
+                    nodes += carlier.getNodes();
+                    metrics.neighbors++;
+                    if(maxNodes == 1 || value < carlier.value(previous)) {
+                        setSequence(instance, order, m, carlier.sequence);
+                        metrics.decodes++;
+                        if(evaluator.load(order))
+                            continue;
+                        order.clearMachine(m);
+                    }
+                    setSequence(instance, order, m, previous);
+                }
+            }
+        }
+        metrics.put("one_machine_nodes", nodes);
+        return order;
+    }
+
+    private void setSequence(Instance instance, ResourceOrder order, int machine, int[] jobs) {
+        for(int job : jobs) {
+            order.addTask(machine, job, instance.task_with_machine(job, machine));
+        }
+    }
+
+    /** Heads, durations and tails (indexed by job) of the tasks of the machine, in the loaded evaluator. */
+    private void loadProblem(Instance instance, HeadTailEvaluator evaluator, int machine, int[] head, int[] duration, int[] tail) {
+        for(int j = 0 ; j < instance.numJobs ; j++) {
+            int task = instance.task_with_machine(j, machine);
+            int id = j * instance.numTasks + task;
+            head[j] = evaluator.head(id);
+            duration[j] = instance.duration(j, task);
+            tail[j] = evaluator.tail(id);
+        }
+    }
+}
@@ -2,197 +2,507 @@ package jobshop.solvers;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.LongConsumer;
 
+import jobshop.AnytimeSolver;
 import jobshop.Instance;
 import jobshop.Result;
-import jobshop.Schedule;
+import jobshop.SearchControl;
 import jobshop.Solver;
+import jobshop.SolverMetrics;
 import jobshop.encodings.ResourceOrder;
 import jobshop.encodings.Task;
 import jobshop.solvers.DescentSolver.Block;
 import jobshop.solvers.DescentSolver.Swap;
 import jobshop.solvers.GreedySolver.Priorite;
 
-public class TabouSolver implements Solver{
+/** Tabu search on the Nowicki and Smutnicki neighborhood, until the deadline.
+ *
+ * - a taboo move is allowed if its makespan is better than the best solution found so far (aspiration) : the
+ *   makespan of a taboo neighbor is computed exactly when its estimate (a lower bound) passes this test ;
+ * - the tenure of a move is drawn at random around 10 + numJobs / numMachines, so it grows with the instance ;
+ * - the best solutions found are kept in a bounded elite pool : after max_stagnation iterations without improving
+ *   the best solution, the search restarts from one of them (or from a perturbation of the best one when the
+ *   pool is empty), with an empty taboo list.
+ *
+ * The solutions visited since the last restart are kept in a MakespanCache, by Zobrist hash : a neighbor already
+ * visited is never chosen while another move is possible. When all the neighbors were visited (a cycle), the search
+ * leaves the cycle with a few random moves.
+ *
+ * With several threads, the neighbors of each iteration are evaluated in chunks by a pool of threads, then the move
+ * is chosen in the calling thread as in the sequential search (in case of tie, the first neighbor wins) : with the
+ * same seed, the search makes the same moves whatever the number of threads.
+ *
+ * The search stops as soon as the lower bound of the instance is reached (by any search publishing in the same
+ * SearchControl). The best solution visited is returned, and every improvement is published in the SearchControl.
+ */
+public class TabouSolver implements AnytimeSolver{
 
-	private int [] [] taboo_swaps;
-	//id of swap with tasks t1 and t2 = [id_t1] [id_t2]
-	//id_t1 = t1.job * numb_task + t1.task
-	//id_t2 = t2.job * numb_task + t2.task
-	private int numb_tasks;
+	//end of the taboo status of the swap of t1 and t2 = [machine] [t1.job] [t2.job]
+	//(a task is identified by its job on its machine) ; the lines are allocated at their first taboo move,
+	//since only the tasks of critical blocks are swapped
+	private int [] [] [] taboo_swaps;
 	
-	private final int duree_taboo = 5;
-	private final int maxIter = 50;
+	//the tenure of each move is drawn in [min_duree_taboo, max_duree_taboo]
+	private int min_duree_taboo;
+	private int max_duree_taboo;
+	//number of iterations without improving the best solution before a restart
+	private int max_stagnation;
+	//number of random moves made to leave a cycle
+	private final int escape_moves = 2;
+	//maximal number of solutions in the elite pool
+	private final int max_elites = 8;
+	
+	//gives the initial solution
+	private final Solver first_solver;
+	
+	//number of threads evaluating the neighbors
+	private final int numb_threads;
+	//evaluates the chunks of neighbors during a call to solve, null for a sequential search
+	private ExecutorService pool;
+	//minimal number of neighbors of a chunk : below, the tasks cost more than the evaluation
+	private int min_chunk = 16;
+
+	//for the tests : maximal number of iterations, and called with the hash of the new order after each move
+	//(setMinChunk also lets the tests split small neighborhoods)
+	private int max_iterations = Integer.MAX_VALUE;
+	private LongConsumer move_listener;
+	
+	//solutions visited, by Zobrist hash
+	private int cache_size = 1 << 18;
+	private MakespanCache cache;
+	//number of cycles detected during the last call to solve
+	private long cycles;
+	//metrics of the current call to solve
+	private SolverMetrics metrics;
+	
+	//fixed seed : two runs with the same number of iterations give the same result
+	private final long seed;
+	private SplittableRandom random;
+	
+	public TabouSolver()
+	{
+		this(1);
+	}
+	
+	/** numb_threads > 1 : the neighbors of each iteration are evaluated by numb_threads threads (the moves are the
+	 * ones of the sequential search). */
+	public TabouSolver(int numb_threads)
+	{
+		this(numb_threads, 0);
+	}
+	
+	public TabouSolver(int numb_threads, long seed)
+	{
+		this(new GreedySolver(Priorite.EST_SPT), numb_threads, seed);
+		//this(new RandomSolver(), numb_threads, seed);
+	}
+	
+	/** The search starts from the solution of first_solver (e.g. ShiftingBottleneckSolver). */
+	public TabouSolver(Solver first_solver, int numb_threads)
+	{
+		this(first_solver, numb_threads, 0);
+	}
+	
+	public TabouSolver(Solver first_solver, int numb_threads, long seed)
+	{
+		this.first_solver = first_solver;
+		this.numb_threads = Math.max(1, numb_threads);
+		this.seed = seed;
+	}
+	
+	/** Maximal number of visited solutions kept in the cache (see MakespanCache). */
+	public void setCacheSize(int cache_size)
+	{
+		this.cache_size = cache_size;
+	}
+	
+	/** Cache of the last call to solve, with its hit and miss counts. */
+	public MakespanCache getCache()
+	{
+		return cache;
+	}
+	
+	/** Number of times the search came back to a solution already visited during the last call to solve. */
+	public long getCycles()
+	{
+		return cycles;
+	}
+
+	void setMaxIterations(int max_iterations)
+	{
+		this.max_iterations = max_iterations;
+	}
+
+	void setMoveListener(LongConsumer move_listener)
+	{
+		this.move_listener = move_listener;
+	}
+
+	void setMinChunk(int min_chunk)
+	{
+		this.min_chunk = min_chunk;
+	}
+	
+	/** A solution of the elite pool. */
+	private static class Elite
+	{
+		final ResourceOrder order;
+		final int makespan;
+		
+		Elite(ResourceOrder order, int makespan)
+		{
+			this.order = order;
+			this.makespan = makespan;
+		}
+	}
+	
+	/** Evaluation of the neighbors of an iteration : estimated makespan, Zobrist hash and end of the taboo status of
+	 * each swap, and exact makespan of the taboo swaps that may pass the aspiration (-1 for the other ones).
+	 * The chunks only read the order, the evaluator and the taboo list, and write their own indices. */
+	private class Neighbors
+	{
+		final List<Swap> swaps;
+		final ResourceOrder order;
+		final long hash;
+		final HeadTailEvaluator evaluator;
+		final int [] estimates;
+		final int [] taboo_until;
+		final long [] hashes;
+		final int [] exact;
+		//a swap is taboo if its taboo status ends after now
+		final int now;
+		final int best_makespan;
+		
+		Neighbors(List<Swap> swaps, ResourceOrder order, long hash, HeadTailEvaluator evaluator, int [] estimates, int [] taboo_until, long [] hashes, int [] exact, int now, int best_makespan)
+		{
+			this.swaps = swaps;
+			this.order = order;
+			this.hash = hash;
+			this.evaluator = evaluator;
+			this.estimates = estimates;
+			this.taboo_until = taboo_until;
+			this.hashes = hashes;
+			this.exact = exact;
+			this.now = now;
+			this.best_makespan = best_makespan;
+		}
+		
+		//estimated makespan : swaps on the critical path never create a cycle
+		void evaluate(int from, int to)
+		{
+			//copy of the order for the exact makespans, made at the first one
+			ResourceOrder neighbor = null;
+			for(int s = from ; s < to ; s++)
+			{
+				Swap swap = swaps.get(s);
+				estimates[s] = evaluator.estimate(swap, order);
+				hashes[s] = hash ^ ZobristHash.delta(order, swap);
+				taboo_until[s] = taboo_end(swap.machine, order.getTask(swap.machine, swap.t1), order.getTask(swap.machine, swap.t2));
+				exact[s] = -1;
+				if(taboo_until[s] > now && estimates[s] < best_makespan)
+				{
+					if(neighbor == null)
+					{
+						neighbor = order.copy();
+					}
+					swap.applyOn(neighbor);
+					exact[s] = neighbor.makespan();
+					swap.applyOn(neighbor);
+				}
+			}
+		}
+	}
 
     @Override
-    public Result solve(Instance instance, long deadline) 
+    public Result solve(Instance instance, long deadline, SearchControl control) 
     {
-    	numb_tasks = instance.numTasks;
-    	
-    	int max_tab = instance.numJobs * numb_tasks + numb_tasks;
-    	taboo_swaps = new int[max_tab][max_tab];
+    	Result first_soluce = first_solver.solve(instance, deadline);
+    	if(numb_threads == 1)
+    	{
+    		return search(instance, deadline, control, first_soluce);
+    	}
     	
-    	for(int i = 0 ; i<max_tab ; i++)
+    	pool = Executors.newFixedThreadPool(numb_threads - 1);
+    	try
     	{
-    		for(int j = 0 ; j<max_tab ; j++)
-    		{
-    			taboo_swaps[i][j] = 0;
-    		}
+    		return search(instance, deadline, control, first_soluce);
+    	}
+    	finally
+    	{
+    		pool.shutdownNow();
+    		pool = null;
     	}
+    }
+    
+    /** Search from the solution first_soluce, with the seed of this solver. */
+    private Result search(Instance instance, long deadline, SearchControl control, Result first_soluce)
+    {
+    	long start = System.nanoTime();
+    	metrics = new SolverMetrics();
+    	random = new SplittableRandom(seed);
     	
-    	GreedySolver first_solver = new GreedySolver(Priorite.EST_SPT);
-    	//RandomSolver first_solver = new RandomSolver();
-    	Result first_soluce = first_solver.solve(instance, deadline);
-        
-    	//to return
-    	Result best_current_soluce = first_soluce;
+    	min_duree_taboo = 10 + instance.numJobs / instance.numMachines;
+    	max_duree_taboo = min_duree_taboo + min_duree_taboo / 2;
+    	max_stagnation = 50 * (instance.numJobs + instance.numMachines);
+    	
+    	taboo_swaps = new int[instance.numMachines][instance.numJobs][];
+    	
+    	ResourceOrder current_r_order = new ResourceOrder(first_soluce.schedule);
+    	
+    	//heads and tails of the current order, to evaluate the neighbors without building their schedule
+    	HeadTailEvaluator evaluator = new HeadTailEvaluator(instance);
+    	evaluator.load(current_r_order);
+    	metrics.decodes++;
+    	int current_makespan = evaluator.makespan();
+    	long current_hash = ZobristHash.of(current_r_order);
+    	cache = new MakespanCache(cache_size);
+    	cache.put(current_hash, current_makespan);
+    	cycles = 0;
+    	//buffer for the critical path of the current order
+    	int [] critical_path = new int[instance.numJobs * instance.numTasks];
     	
-    	Schedule current_schedule = best_current_soluce.schedule;
+    	//to return
+    	ResourceOrder best_r_order = current_r_order.copy();
+    	int best_makespan = current_makespan;
+    	control.offer(first_soluce.schedule);
+    	Result.ExitCause cause = Result.ExitCause.Timeout;
     	
-    	ResourceOrder current_r_order = new ResourceOrder(current_schedule);
-    	int current_makespan = current_schedule.makespan();
-    	int current_makespan_taboo = current_makespan;
+    	int lower_bound = instance.lowerBound();
     	
-    	boolean can_continue = true;
+    	List<Elite> elites = new ArrayList<Elite>();
+    	int stagnation = 0;
     	
     	int iter = 0;
+    	//the taboo list is emptied by shifting the iteration number it is compared to, instead of clearing it
+    	int taboo_offset = 0;
     	
-    	while(iter < maxIter && can_continue)
+    	while(iter < max_iterations && best_makespan > lower_bound && control.incumbentMakespan() > lower_bound && !control.shouldStop(deadline))
     	{
     		iter++;
-    		can_continue = false;
     		
-    		//when there is not non taboo solutions
-    		boolean better_taboo_found = false;
-    		Task first_task_taboo = null;
-    		Task second_task_taboo = null;
-    		ResourceOrder local_taboo_r_order = current_r_order.copy();
+    		//to cover all neighbors
+    		List<Swap> all_swaps = new ArrayList<Swap>();
+    		for(Block block : DescentSolver.blocksOfCriticalPath(current_r_order, evaluator, critical_path))
+    		{
+    			all_swaps.addAll(DescentSolver.neighbors(block));
+    		}
+    		int numb_swaps = all_swaps.size();
+    		metrics.neighbors += numb_swaps;
     		
-    		//when there is a non taboo solution
-    		boolean makespan_swaps_is_not_initialized = true;
-    		int current_makespan_swaps = -1;
-    		boolean valid_swap_found = false;
-    		Task first_task_swap = null;
-    		Task second_task_swap = null;
-    		ResourceOrder local_r_order = current_r_order.copy();
+    		if(numb_swaps == 0)
+    		{
+    			//the critical path is a single job : its duration is a lower bound, the solution is optimal
+    			if(current_makespan < best_makespan)
+    			{
+    				best_r_order = current_r_order.copy();
+    				best_makespan = current_makespan;
+    				control.offer(best_r_order.toSchedule());
+    			}
+    			cause = Result.ExitCause.ProvedOptimal;
+    			break;
+    		}
+    		
+    		//estimated makespan and taboo status of each neighbor
+    		int [] estimates = new int[numb_swaps];
+    		int [] taboo_until = new int[numb_swaps];
+    		long [] neighbor_hashes = new long[numb_swaps];
+    		int [] exact = new int[numb_swaps];
+    		Neighbors neighbors = new Neighbors(all_swaps, current_r_order, current_hash, evaluator, estimates, taboo_until, neighbor_hashes, exact, iter + taboo_offset, best_makespan);
+    		int numb_chunks = pool == null ? 1 : Math.min(numb_threads, (numb_swaps + min_chunk - 1) / min_chunk);
+    		List<Future<?>> chunks = new ArrayList<Future<?>>();
+    		for(int c = 1 ; c < numb_chunks ; c++)
+    		{
+    			int from = c * numb_swaps / numb_chunks;
+    			int to = (c + 1) * numb_swaps / numb_chunks;
+    			chunks.add(pool.submit(() -> neighbors.evaluate(from, to)));
+    		}
+    		//the first chunk is evaluated by this thread
+    		neighbors.evaluate(0, numb_swaps / numb_chunks);
+    		try
+    		{
+    			for(Future<?> chunk : chunks)
+    			{
+    				chunk.get();
+    			}
+    		}
+    		catch (InterruptedException | ExecutionException e)
+    		{
+    			throw new RuntimeException(e);
+    		}
+    		
+    		//best allowed neighbor (not visited yet, and non-taboo or taboo but better than the best solution),
+    		//or the neighbor whose taboo status ends first if all of them are forbidden
+    		int chosen = -1;
+    		int oldest_taboo = -1;
+    		boolean [] visited = new boolean[numb_swaps];
+    		for(int s = 0 ; s < numb_swaps ; s++)
+    		{
+    			if(exact[s] != -1)
+    			{
+    				metrics.decodes++;
+    			}
+    			visited[s] = cache.get(neighbor_hashes[s]) != -1;
+    			boolean allowed = !visited[s] && (taboo_until[s] <= iter + taboo_offset || exact[s] < best_makespan);
+    			if(allowed)
+    			{
+    				if(chosen == -1 || estimates[s] < estimates[chosen])
+    				{
+    					chosen = s;
+    				}
+    			}
+    			else if(oldest_taboo == -1 || (visited[oldest_taboo] && !visited[s])
+    					|| (visited[oldest_taboo] == visited[s] && taboo_until[s] < taboo_until[oldest_taboo]))
+    			{
+    				//a neighbor not visited yet first, since the other ones lead back into a cycle
+    				oldest_taboo = s;
+    			}
+    		}//end all neighbors
+    		if(chosen == -1)
+    		{
+    			chosen = oldest_taboo;
+    		}
+    		
+    		Swap chosen_swap = all_swaps.get(chosen);
+    		maj_taboo_swaps(iter + taboo_offset, chosen_swap.machine, current_r_order.getTask(chosen_swap.machine, chosen_swap.t1), current_r_order.getTask(chosen_swap.machine, chosen_swap.t2));
+    		
+    		//the heads and tails of the new order give its makespan and the critical path of the next iteration
+    		chosen_swap.applyOn(current_r_order);
+    		evaluator.load(current_r_order);
+    		metrics.decodes++;
+    		current_makespan = evaluator.makespan();
+    		current_hash = neighbor_hashes[chosen];
+    		cache.put(current_hash, current_makespan);
+    		if(move_listener != null)
+    		{
+    			move_listener.accept(current_hash);
+    		}
+    		boolean cycle = visited[chosen];
+    		if(cycle)
+    		{
+    			cycles++;
+    		}
+    		
+    		if(current_makespan < best_makespan)
+    		{
+    			best_r_order = current_r_order.copy();
+    			best_makespan = current_makespan;
+    			control.offer(best_r_order.toSchedule());
+    			add_elite(elites, new Elite(best_r_order, best_makespan));
+    			stagnation = 0;
+    			metrics.lastImprovementMs = SolverMetrics.elapsedMs(start);
+    		}
+    		else if(++stagnation >= max_stagnation)
+    		{
+    			//restart from an elite solution (each one is used once), or from a perturbation of the best one
+    			metrics.restarts++;
+    			if(!elites.isEmpty())
+    			{
+    				current_r_order = elites.remove(random.nextInt(elites.size())).order.copy();
+    				evaluator.load(current_r_order);
+    				metrics.decodes++;
+    			}
+    			else
+    			{
+    				current_r_order = best_r_order.copy();
+    				perturb(current_r_order, evaluator, critical_path, min_duree_taboo);
+    			}
+    			current_makespan = evaluator.makespan();
+    			current_hash = ZobristHash.of(current_r_order);
+    			//the solutions visited before the restart may be visited again
+    			cache.clear();
+    			cache.put(current_hash, current_makespan);
+    			
+    			//every taboo status ends before the next iteration
+    			taboo_offset += max_duree_taboo;
+    			stagnation = 0;
+    		}
+    		else if(cycle)
+    		{
+    			//every neighbor was visited since the restart : a few random moves leave the cycle
+    			perturb(current_r_order, evaluator, critical_path, escape_moves);
+    			current_makespan = evaluator.makespan();
+    			current_hash = ZobristHash.of(current_r_order);
+    			cache.put(current_hash, current_makespan);
+    		}
     		
-    		//to cover all neighbors
-    		List<Block> all_blocks = DescentSolver.blocksOfCriticalPath(current_r_order);
-        	int numb_blocks = all_blocks.size();
-        	
-        	for(int b = 0 ; b < numb_blocks ; b++)
-        	{        		
-        		List<Swap> all_current_swaps = DescentSolver.neighbors(all_blocks.get(b));
-        		int numb_swaps = all_current_swaps.size();
-        		
-        		for(int s = 0 ; s < numb_swaps ; s++)
-        		{
-        			//for this neighbor
-        			ResourceOrder new_r_order = current_r_order.copy();
-        			
-        			Swap current_swap = all_current_swaps.get(s);
-        			
-        			Task first_task = new_r_order.tasksByMachine[current_swap.machine][current_swap.t1];
-        			Task second_task = new_r_order.tasksByMachine[current_swap.machine][current_swap.t2];
-        			
-        			boolean is_taboo = check_is_taboo(iter, first_task, second_task);
-        			
-        			all_current_swaps.get(s).applyOn(new_r_order);
-        			
-        			Schedule new_schedule = new_r_order.toSchedule();
-        			
-        			//checking and choices
-        			if(new_schedule != null)
-        			{
-        				if(new_schedule.isValid())
-        				{
-        					int new_makespan = new_schedule.makespan();
-        					
-        					if(is_taboo)
-                			{
-        						//current_makespan_taboo already initialized with last makespan
-        						//for each better neighbor (valid and taboo)
-        						if(new_makespan < current_makespan_taboo)
-            					{
-            						local_taboo_r_order = new_r_order;
-            						current_makespan_taboo = new_makespan;
-            						better_taboo_found = true;
-            						first_task_taboo = first_task;
-            						second_task_taboo = second_task;
-            					}
-                			}
-                			else
-                			{
-                				//made only for the first neighbor (valid and non-taboo)
-                				if(makespan_swaps_is_not_initialized)
-                				{
-                					current_makespan_swaps = new_makespan;
-                					makespan_swaps_is_not_initialized = false;
-                				}
-                				
-                				//for each better neighbor (valid and non-taboo)
-                				if(new_makespan <= current_makespan_swaps)
-            					{
-            						local_r_order = new_r_order;
-            						current_makespan_swaps = new_makespan;
-            						valid_swap_found = true;
-            						first_task_swap = first_task;
-            						second_task_swap = second_task;
-            					}
-                			}
-
-        				}
-        			}//end checking
-        			
-        			
-        		}//end one neighbor
-        	}//end all neighbors
-        	
-        	can_continue = valid_swap_found || better_taboo_found;
-        	
-        	if(can_continue)
-        	{
-        		if(valid_swap_found)
-        		{
-        			current_r_order = local_r_order;
-        			current_makespan = current_makespan_swaps;
-        			maj_taboo_swaps(iter, first_task_swap, second_task_swap);
-        		}
-        		else
-        		{
-        			current_r_order = local_taboo_r_order;
-        			current_makespan = current_makespan_taboo;
-        			maj_taboo_swaps(iter, first_task_taboo, second_task_taboo);
-        		}
-        	}
-        	
-        	current_makespan_taboo = current_makespan;
-        	
     	}//end while
     	
-    	best_current_soluce = new Result(best_current_soluce.instance, current_r_order.toSchedule(), best_current_soluce.cause);
-    	
-    	return best_current_soluce;
+    	if(best_makespan <= lower_bound)
+    	{
+    		cause = Result.ExitCause.ProvedOptimal;
+    	}
+    	else if(cause == Result.ExitCause.Timeout && control.isCancelled())
+    	{
+    		cause = Result.ExitCause.Cancelled;
+    	}
+    	metrics.iterations = iter;
+    	metrics.put("cache_hits", cache.getHits());
+    	metrics.put("cache_misses", cache.getMisses());
+    	metrics.put("cycles", cycles);
+    	return new Result(instance, best_r_order.toSchedule(), cause, metrics);
+    }
+    
+    /** Adds a solution to the elite pool, removing the worst one if the pool is full. */
+    private void add_elite(List<Elite> elites, Elite elite)
+    {
+    	elites.add(elite);
+    	if(elites.size() > max_elites)
+    	{
+    		int worst = 0;
+    		for(int e = 1 ; e < elites.size() ; e++)
+    		{
+    			if(elites.get(e).makespan > elites.get(worst).makespan)
+    			{
+    				worst = e;
+    			}
+    		}
+    		elites.remove(worst);
+    	}
     }
     
-    //id of swap with tasks t1 and t2 = [id_t1] [id_t2]
-  	//id_t1 = t1.job * numb_task + t1.task
-  	//id_t2 = t2.job * numb_task + t2.task
-    private boolean check_is_taboo(int current_iter, Task t1, Task t2)
+    /** Applies numb_moves random moves of the neighborhood on the order, and leaves the evaluator loaded with the result. */
+    private void perturb(ResourceOrder order, HeadTailEvaluator evaluator, int [] critical_path, int numb_moves)
     {
-    	int id_t1 = t1.job * numb_tasks + t1.task;
-      	int id_t2 = t2.job * numb_tasks + t2.task;
-      	
-    	return taboo_swaps[id_t1][id_t2] > current_iter;
+    	evaluator.load(order);
+    	metrics.decodes++;
+    	for(int k = 0 ; k < numb_moves ; k++)
+    	{
+    		List<Swap> swaps = new ArrayList<Swap>();
+    		for(Block block : DescentSolver.blocksOfCriticalPath(order, evaluator, critical_path))
+    		{
+    			swaps.addAll(DescentSolver.neighbors(block));
+    		}
+    		if(swaps.isEmpty())
+    		{
+    			return;
+    		}
+    		swaps.get(random.nextInt(swaps.size())).applyOn(order);
+    		evaluator.load(order);
+    		metrics.decodes++;
+    	}
     }
     
-    private void maj_taboo_swaps(int current_iter, Task t1, Task t2)
+    //iteration until which the swap of t1 and t2 (on machine) is taboo
+    private int taboo_end(int machine, Task t1, Task t2)
     {
-    	int id_t1 = t1.job * numb_tasks + t1.task;
-      	int id_t2 = t2.job * numb_tasks + t2.task;
-      	
-      	//be careful : we avoid the inverse swap to don't come back immediately!!
-    	taboo_swaps[id_t2][id_t1] = current_iter + duree_taboo;
+    	int [] line = taboo_swaps[machine][t1.job];
+    	return line == null ? 0 : line[t2.job];
+    }
+    
+    private void maj_taboo_swaps(int current_iter, int machine, Task t1, Task t2)
+    {
+    	if(taboo_swaps[machine][t2.job] == null)
+    	{
+    		taboo_swaps[machine][t2.job] = new int[taboo_swaps[machine].length];
+    	}
+    	//be careful : we avoid the inverse swap to don't come back immediately!!
+    	taboo_swaps[machine][t2.job][t1.job] = current_iter + min_duree_taboo + random.nextInt(max_duree_taboo - min_duree_taboo + 1);
     }
 
 }
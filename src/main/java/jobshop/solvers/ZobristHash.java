@@ -0,0 +1,46 @@
+package jobshop.solvers;
+
+import jobshop.encodings.ResourceOrder;
+import jobshop.solvers.DescentSolver.Swap;
+
+/** 64-bit Zobrist hash of the machine sequences of a resource order.
+ *
+ * The hash is the xor of a random key for each (position on its machine, task id) pair of the order. The keys are
+ * not stored : each one is computed on the fly by mixing the pair with SplitMix64, so no table depends on the size
+ * of the instance. A swap only changes four keys, so the hash of a neighbor is obtained in O(1) from the hash of
+ * the current order, before applying the swap.
+ */
+final class ZobristHash {
+
+    private ZobristHash() {}
+
+    /** Hash of all the tasks placed in the order. */
+    static long of(ResourceOrder order) {
+        long hash = 0;
+        for(int m = 0 ; m < order.instance.numMachines ; m++) {
+            for(int i = 0 ; i < order.nextFreeSlot[m] ; i++) {
+                hash ^= key(order, i, order.taskId(m, i));
+            }
+        }
+        return hash;
+    }
+
+    /** Value to xor with the hash of the order to get the hash of the order on which the swap is applied.
+     * A swap is its own inverse, so it is the same before and after applying it. */
+    static long delta(ResourceOrder order, Swap swap) {
+        int a = order.taskId(swap.machine, swap.t1);
+        int b = order.taskId(swap.machine, swap.t2);
+        return key(order, swap.t1, a) ^ key(order, swap.t2, b) ^ key(order, swap.t1, b) ^ key(order, swap.t2, a);
+    }
+
+    private static long key(ResourceOrder order, int position, int id) {
+        return splitMix64((long) position * (order.instance.numJobs * order.instance.numTasks) + id);
+    }
+
+    private static long splitMix64(long x) {
+        x += 0x9E3779B97F4A7C15L;
+        x = (x ^ (x >>> 30)) * 0xBF58476D1CE4E5B9L;
+        x = (x ^ (x >>> 27)) * 0x94D049BB133111EBL;
+        return x ^ (x >>> 31);
+    }
+}
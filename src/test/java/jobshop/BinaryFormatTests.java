@@ -0,0 +1,130 @@
+package jobshop;
+
+import jobshop.encodings.ResourceOrder;
+import jobshop.solvers.GreedySolver;
+import jobshop.solvers.GreedySolver.Priorite;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+public class BinaryFormatTests {
+
+    private static void assertSameInstance(Instance a, Instance b) {
+        assert a.numJobs == b.numJobs && a.numTasks == b.numTasks && a.numMachines == b.numMachines;
+        for(int j = 0 ; j < a.numJobs ; j++) {
+            for(int t = 0 ; t < a.numTasks ; t++) {
+                assert a.machine(j, t) == b.machine(j, t);
+                assert a.duration(j, t) == b.duration(j, t);
+            }
+        }
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/ft06"));
+        Schedule schedule = new GreedySolver(Priorite.EST_LRPT).solve(instance, System.currentTimeMillis() + 1000).schedule;
+        ResourceOrder order = new ResourceOrder(schedule);
+        // a partial order keeps its empty slots
+        ResourceOrder partial = order.copy();
+        partial.clearMachine(2);
+
+        Path file = Files.createTempFile("jobshop", ".jspb");
+        Path text = Files.createTempFile("jobshop", ".txt");
+        try {
+            BinaryFormat.write(instance, file);
+            assert BinaryFormat.isBinary(file);
+            Instance read = BinaryFormat.readInstance(file);
+            assertSameInstance(instance, read);
+            // Instance.fromFile recognizes the binary format
+            assertSameInstance(instance, Instance.fromFile(file));
+
+            BinaryFormat.writeText(read, "ft06", text);
+            assert !BinaryFormat.isBinary(text);
+            assertSameInstance(instance, Instance.fromFile(text));
+
+            BinaryFormat.write(order, file);
+            ResourceOrder readOrder = BinaryFormat.readResourceOrder(instance, file);
+            BinaryFormat.write(partial, file);
+            ResourceOrder readPartial = BinaryFormat.readResourceOrder(instance, file);
+            for(int m = 0 ; m < instance.numMachines ; m++) {
+                assert readOrder.nextFreeSlot[m] == order.nextFreeSlot[m];
+                assert readPartial.nextFreeSlot[m] == partial.nextFreeSlot[m];
+                for(int i = 0 ; i < instance.numJobs ; i++) {
+                    assert readOrder.taskId(m, i) == order.taskId(m, i);
+                    assert readPartial.taskId(m, i) == partial.taskId(m, i);
+                }
+            }
+            assert readPartial.nextFreeSlot[2] == 0;
+
+            BinaryFormat.write(schedule, file);
+            Schedule readSchedule = BinaryFormat.readSchedule(instance, file);
+            for(int j = 0 ; j < instance.numJobs ; j++) {
+                for(int t = 0 ; t < instance.numTasks ; t++) {
+                    assert readSchedule.startTime(j, t) == schedule.startTime(j, t);
+                }
+            }
+            assert readSchedule.isValid();
+            assert readSchedule.makespan() == schedule.makespan();
+
+            // a file of another kind is rejected
+            boolean rejected = false;
+            try {
+                BinaryFormat.readInstance(file);
+            } catch (IOException e) {
+                rejected = true;
+            }
+            assert rejected;
+        } finally {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(text);
+        }
+    }
+
+    /** True if the instance file, with the int at the given index replaced by value (or cut after the index if
+     * value is null), is rejected. */
+    private static boolean rejected(byte[] original, int index, Integer value, Path file) throws IOException {
+        byte[] bytes = value == null ? Arrays.copyOf(original, 4 * index) : original.clone();
+        if(value != null)
+            ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).putInt(4 * index, value);
+        Files.write(file, bytes);
+        try {
+            BinaryFormat.readInstance(file);
+            return false;
+        } catch (IOException e) {
+            return true;
+        }
+    }
+
+    @Test
+    public void testRejectedInstances() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/ft06"));
+        Path file = Files.createTempFile("jobshop", ".jspb");
+        try {
+            BinaryFormat.write(instance, file);
+            byte[] bytes = Files.readAllBytes(file);
+            int header = 5;
+            int size = instance.numJobs * instance.numTasks;
+            // the unmodified file is accepted
+            assert !rejected(bytes, 0, BinaryFormat.MAGIC, file);
+            assert rejected(bytes, 0, 0, file);
+            assert rejected(bytes, 1, BinaryFormat.VERSION + 1, file);
+            assert rejected(bytes, header + size, null, file);
+            // machines out of range
+            assert rejected(bytes, header, -1, file);
+            assert rejected(bytes, header, instance.numMachines, file);
+            // the second task of job 0 on the machine of its first task
+            assert rejected(bytes, header + 1, instance.machine(0, 0), file);
+            // negative duration, while a zero duration is valid as in a text file
+            assert rejected(bytes, header + size + 3, -2, file);
+            assert !rejected(bytes, header + size + 3, 0, file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
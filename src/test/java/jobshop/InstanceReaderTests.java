@@ -0,0 +1,94 @@
+package jobshop;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+
+public class InstanceReaderTests {
+
+    private static InstanceReader reader(String content) {
+        return new InstanceReader(new ByteArrayInputStream(content.getBytes(StandardCharsets.US_ASCII)), "test");
+    }
+
+    @Test
+    public void testRepositoryFormat() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/aaa1"));
+        assert instance.numJobs == 2;
+        assert instance.numTasks == 3;
+
+        InstanceReader reader = reader("# comment\r\n2 3\r\n0 3 1 3 2 2\r\n1 2 0 2 2 4\r\n");
+        InstanceReader.Entry entry = reader.next();
+        assert entry.name.equals("test");
+        for(int j = 0 ; j < 2 ; j++) {
+            for(int t = 0 ; t < 3 ; t++) {
+                assert entry.instance.machine(j, t) == instance.machine(j, t);
+                assert entry.instance.duration(j, t) == instance.duration(j, t);
+            }
+        }
+        assert reader.next() == null;
+    }
+
+    @Test
+    public void testOrLibrary() throws IOException {
+        InstanceReader reader = reader(
+                " +++++++++++++++++++++++++++++\n" +
+                " \n" +
+                " instance first\n" +
+                " \n" +
+                " +++++++++++++++++++++++++++++\n" +
+                " Some author 2x2 instance (Table 1, instance 1)\n" +
+                " 2 2\n" +
+                " 0 5 1 4\n" +
+                " 1 3 0 2\n" +
+                " +++++++++++++++++++++++++++++\n" +
+                " \n" +
+                " instance second\n" +
+                " \n" +
+                " +++++++++++++++++++++++++++++\n" +
+                " 1 2\n" +
+                " 1 7 0 1\n" +
+                " +++++++++++++++++++++++++++++\n" +
+                " EOF\n");
+        InstanceReader.Entry first = reader.next();
+        assert first.name.equals("first");
+        assert first.instance.numJobs == 2;
+        assert first.instance.machine(1, 0) == 1 && first.instance.duration(1, 0) == 3;
+        InstanceReader.Entry second = reader.next();
+        assert second.name.equals("second");
+        assert second.instance.numJobs == 1;
+        assert second.instance.machine(0, 0) == 1 && second.instance.duration(0, 0) == 7;
+        assert reader.next() == null;
+    }
+
+    @Test
+    public void testTaillard() throws IOException {
+        InstanceReader reader = reader(
+                "Nb of jobs, Nb of Machines, Time seed, Machine seed, Upper bound, Lower bound\n" +
+                "           2           3   840612802   398197754          30          20\n" +
+                "Times\n" +
+                " 10 20 30\n" +
+                " 40 50 60\n" +
+                "Machines\n" +
+                "  3  1  2\n" +
+                "  1  2  3\n" +
+                "Nb of jobs, Nb of Machines, Time seed, Machine seed, Upper bound, Lower bound\n" +
+                "           1           1   1   2          5          5\n" +
+                "Times\n" +
+                " 5\n" +
+                "Machines\n" +
+                " 1\n");
+        InstanceReader.Entry first = reader.next();
+        assert first.name.equals("test");
+        assert first.instance.numJobs == 2 && first.instance.numMachines == 3;
+        // machines are numbered from 1 in this format
+        assert first.instance.machine(0, 0) == 2 && first.instance.duration(0, 0) == 10;
+        assert first.instance.machine(1, 2) == 2 && first.instance.duration(1, 2) == 60;
+        InstanceReader.Entry second = reader.next();
+        assert second.name.equals("test-2");
+        assert second.instance.duration(0, 0) == 5;
+        assert reader.next() == null;
+    }
+}
@@ -0,0 +1,48 @@
+package jobshop;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+
+public class LowerBoundTests {
+
+    private static Instance instance(String content) throws IOException {
+        byte[] bytes = content.getBytes(StandardCharsets.US_ASCII);
+        return new InstanceReader(new ByteArrayInputStream(bytes), "test").next().instance;
+    }
+
+    @Test
+    public void testJobAndMachineBounds() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/aaa1"));
+        assert LowerBound.jobBound(instance) == 8;
+        assert LowerBound.machineBound(instance) == 6;
+        assert LowerBound.of(instance) == 10;
+        assert instance.lowerBound() == 10;
+    }
+
+    @Test
+    public void testJacksonRule() {
+        int[] head = {0, 1, 2};
+        int[] duration = {4, 2, 2};
+        int[] tail = {1, 10, 0};
+        int[] remaining = new int[3];
+        // task 1 preempts task 0 at 1, ends at 3 and its tail gives 13 ; tasks 0 and 2 end at 6 and 8
+        assert LowerBound.oneMachinePreemptive(3, head, duration, tail, remaining) == 13;
+        // without task 1, task 0 is never preempted and ends at 4, task 2 at 6
+        assert LowerBound.oneMachinePreemptive(1, new int[]{0}, new int[]{4}, new int[]{1}, remaining) == 5;
+    }
+
+    @Test(timeout = 10000)
+    public void testZeroDuration() throws IOException {
+        assert LowerBound.oneMachinePreemptive(2, new int[]{5, 0}, new int[]{0, 3}, new int[]{4, 0}, new int[2]) == 9;
+        assert LowerBound.oneMachinePreemptive(1, new int[]{2}, new int[]{0}, new int[]{3}, new int[1]) == 5;
+
+        Instance instance = instance("2 2\n0 0 1 3\n1 2 0 4\n");
+        assert LowerBound.jobBound(instance) == 6;
+        assert LowerBound.jacksonBound(instance) == 6;
+        assert LowerBound.of(instance) == 6;
+    }
+}
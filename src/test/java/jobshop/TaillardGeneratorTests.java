@@ -0,0 +1,51 @@
+package jobshop;
+
+import org.junit.Test;
+
+public class TaillardGeneratorTests {
+
+    @Test
+    public void testTa01() {
+        Instance ta01 = TaillardGenerator.generate(15, 15, 840612802, 398197754);
+        assert ta01.numJobs == 15 && ta01.numTasks == 15 && ta01.numMachines == 15;
+
+        // first job of ta01, as published (machines numbered from 1)
+        int[] durations = {94, 66, 10, 53, 26, 15, 65, 82, 10, 27, 93, 92, 96, 70, 83};
+        int[] machines = {7, 13, 5, 8, 4, 3, 11, 12, 9, 15, 10, 14, 6, 1, 2};
+        for(int t = 0 ; t < 15 ; t++) {
+            assert ta01.duration(0, t) == durations[t];
+            assert ta01.machine(0, t) == machines[t] - 1;
+        }
+
+        // the same instance from its description
+        Instance described = TaillardGenerator.generate("15x15:840612802:398197754");
+        for(int j = 0 ; j < 15 ; j++) {
+            for(int t = 0 ; t < 15 ; t++) {
+                assert described.duration(j, t) == ta01.duration(j, t);
+                assert described.machine(j, t) == ta01.machine(j, t);
+            }
+        }
+    }
+
+    @Test
+    public void testRoutes() {
+        // every job visits every machine once, with durations in [1, 99]
+        Instance instance = TaillardGenerator.generate(50, 20, 12345);
+        for(int j = 0 ; j < instance.numJobs ; j++) {
+            boolean[] visited = new boolean[instance.numMachines];
+            for(int t = 0 ; t < instance.numTasks ; t++) {
+                assert !visited[instance.machine(j, t)];
+                visited[instance.machine(j, t)] = true;
+                assert instance.duration(j, t) >= 1 && instance.duration(j, t) <= 99;
+            }
+        }
+
+        boolean rejected = false;
+        try {
+            TaillardGenerator.generate("15x15");
+        } catch (IllegalArgumentException e) {
+            rejected = true;
+        }
+        assert rejected;
+    }
+}
@@ -0,0 +1,55 @@
+package jobshop.encodings;
+
+import jobshop.Instance;
+import jobshop.TaillardGenerator;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+
+public class BatchMakespanEvaluatorTests {
+
+    /** Random chromosome : every job appears numTasks times, in a random order. */
+    private static JobNumbers randomChromosome(Instance instance, SplittableRandom random) {
+        JobNumbers chromosome = new JobNumbers(instance);
+        for(int j = 0 ; j < instance.numJobs ; j++) {
+            for(int t = 0 ; t < instance.numTasks ; t++) {
+                chromosome.jobs[chromosome.nextToSet++] = j;
+            }
+        }
+        for(int i = chromosome.jobs.length - 1 ; i > 0 ; i--) {
+            int index = random.nextInt(i + 1);
+            int tmp = chromosome.jobs[index];
+            chromosome.jobs[index] = chromosome.jobs[i];
+            chromosome.jobs[i] = tmp;
+        }
+        return chromosome;
+    }
+
+    private static void checkRandomBatches(Instance instance, int capacity) {
+        SplittableRandom random = new SplittableRandom(0);
+        BatchMakespanEvaluator batch = new BatchMakespanEvaluator(instance, capacity);
+        JobNumbers[] population = new JobNumbers[capacity];
+        int[] makespans = new int[capacity];
+        // a full batch, then a partial one that reuses the state of the evaluator
+        for(int count : new int[]{capacity, capacity / 2 + 1}) {
+            for(int k = 0 ; k < count ; k++) {
+                population[k] = randomChromosome(instance, random);
+                batch.set(k, population[k].jobs);
+            }
+            batch.evaluate(count, makespans);
+            for(int k = 0 ; k < count ; k++) {
+                assert makespans[k] == population[k].makespan();
+                assert makespans[k] == population[k].toSchedule().makespan();
+            }
+        }
+    }
+
+    @Test
+    public void testSameMakespans() throws IOException {
+        checkRandomBatches(Instance.fromFile(Paths.get("instances/aaa1")), 8);
+        checkRandomBatches(Instance.fromFile(Paths.get("instances/ft06")), 17);
+        checkRandomBatches(TaillardGenerator.generate(20, 10, 1), 64);
+    }
+}
@@ -9,6 +9,11 @@ import org.junit.Test;
 
 import java.io.IOException;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class EncodingTests {
 
@@ -31,6 +36,7 @@ public class EncodingTests {
         System.out.println(sched);
         assert sched.isValid();
         assert sched.makespan() == 12;
+        assert enc.makespan() == 12;
 
 
 
@@ -46,6 +52,7 @@ public class EncodingTests {
         sched = enc.toSchedule();
         assert sched.isValid();
         assert sched.makespan() == 14;
+        assert enc.makespan() == 14;
     }
 
     @Test
@@ -72,4 +79,65 @@ public class EncodingTests {
         assert result.schedule.makespan() == sched.makespan(); // should have the same makespan
     }
 
+    @Test
+    public void testResourceOrder() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/aaa1"));
+
+        Solver solver = new BasicSolver();
+        Result result = solver.solve(instance, System.currentTimeMillis() + 10);
+
+        // the resource order of a schedule gives back the same schedule
+        ResourceOrder order = new ResourceOrder(result.schedule);
+        assert order.toSchedule().makespan() == result.schedule.makespan();
+        assert order.makespan() == result.schedule.makespan();
+
+        // a copy is independent of the original
+        ResourceOrder copy = order.copy();
+        Task first = copy.getTask(0, 0);
+        Task second = copy.getTask(0, 1);
+        copy.swap(0, 0, 1);
+        assert copy.getTask(0, 0).equals(second) && copy.getTask(0, 1).equals(first);
+        assert copy.positionOf(first.job, first.task) == 1;
+        assert order.getTask(0, 0).equals(first);
+        assert order.positionOf(first.job, first.task) == 0;
+    }
+
+    @Test
+    public void testConcurrentDecoding() throws Exception {
+        Instance small = Instance.fromFile(Paths.get("instances/aaa1"));
+        Instance large = Instance.fromFile(Paths.get("instances/ft06"));
+        ResourceOrder smallOrder = new ResourceOrder(new BasicSolver().solve(small, System.currentTimeMillis() + 10).schedule);
+        ResourceOrder largeOrder = new ResourceOrder(new BasicSolver().solve(large, System.currentTimeMillis() + 10).schedule);
+        int smallMakespan = smallOrder.makespan();
+        int largeMakespan = largeOrder.makespan();
+
+        // a schedule does not share the buffers of the decoder with the next decodings
+        Schedule sched = smallOrder.toSchedule();
+        largeOrder.toSchedule();
+        assert sched.isValid();
+        assert sched.makespan() == smallMakespan;
+
+        // the same orders decoded by several threads at once
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> runs = new ArrayList<>();
+            for(int t = 0 ; t < 4 ; t++) {
+                runs.add(pool.submit(() -> {
+                    boolean same = true;
+                    for(int k = 0 ; k < 1000 ; k++) {
+                        same &= largeOrder.makespan() == largeMakespan;
+                        same &= smallOrder.makespan() == smallMakespan;
+                        same &= largeOrder.toSchedule().makespan() == largeMakespan;
+                    }
+                    return same;
+                }));
+            }
+            for(Future<Boolean> run : runs) {
+                assert run.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
 }
@@ -0,0 +1,28 @@
+package jobshop.solvers;
+
+import jobshop.Instance;
+import jobshop.Result;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+public class BranchAndBoundSolverTests {
+
+    @Test
+    public void testProvesFt06() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/ft06"));
+        for(int numThreads : new int[]{1, 4}) {
+            // the tabu search gets a tenth of the time, the tree takes less than 100 ms
+            BranchAndBoundSolver solver = new BranchAndBoundSolver(numThreads);
+            Result result = solver.solve(instance, System.currentTimeMillis() + 5_000);
+            assert result.schedule.isValid();
+            assert result.schedule.makespan() == 55;
+            assert result.cause == Result.ExitCause.ProvedOptimal;
+            // the metrics are the ones of the tree, the tabu search has its own keys
+            assert result.metrics.iterations == solver.getNodes() && result.metrics.iterations > 0;
+            assert result.metrics.extra().get("pruned").longValue() == solver.getPruned();
+            assert result.metrics.extra().get("heuristic_iterations").longValue() > 0;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package jobshop.solvers;
+
+import org.junit.Test;
+
+import java.util.SplittableRandom;
+
+public class CarlierTests {
+
+    /** Best value over all the sequences of the tasks k to n-1 (the tasks 0 to k-1 being already placed). */
+    private static int bruteForce(Carlier carlier, int[] order, int k, int n) {
+        if(k == n)
+            return carlier.value(order);
+        int best = Integer.MAX_VALUE;
+        for(int i = k ; i < n ; i++) {
+            int tmp = order[k]; order[k] = order[i]; order[i] = tmp;
+            best = Math.min(best, bruteForce(carlier, order, k + 1, n));
+            tmp = order[k]; order[k] = order[i]; order[i] = tmp;
+        }
+        return best;
+    }
+
+    @Test
+    public void testOptimalOnSmallProblems() {
+        SplittableRandom random = new SplittableRandom(0);
+        Carlier carlier = new Carlier(7, Integer.MAX_VALUE);
+        for(int problem = 0 ; problem < 200 ; problem++) {
+            int n = 2 + random.nextInt(6);
+            int[] head = new int[n];
+            int[] duration = new int[n];
+            int[] tail = new int[n];
+            for(int i = 0 ; i < n ; i++) {
+                head[i] = random.nextInt(30);
+                duration[i] = 1 + random.nextInt(10);
+                tail[i] = random.nextInt(30);
+            }
+            int value = carlier.solve(n, head, duration, tail);
+            // the value is the one of the returned sequence, which contains every task once
+            assert value == carlier.value(carlier.sequence);
+            boolean[] seen = new boolean[n];
+            for(int k = 0 ; k < n ; k++) {
+                assert !seen[carlier.sequence[k]];
+                seen[carlier.sequence[k]] = true;
+            }
+            // no sequence is better, and Schrage's rule is not better either
+            int[] order = new int[n];
+            for(int i = 0 ; i < n ; i++)
+                order[i] = i;
+            assert value == bruteForce(carlier, order, 0, n);
+            assert value <= carlier.value(carlier.schrageSequence);
+        }
+    }
+}
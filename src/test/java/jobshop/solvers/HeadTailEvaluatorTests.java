@@ -0,0 +1,79 @@
+package jobshop.solvers;
+
+import jobshop.Instance;
+import jobshop.Schedule;
+import jobshop.TaillardGenerator;
+import jobshop.encodings.ResourceOrder;
+import jobshop.solvers.DescentSolver.Block;
+import jobshop.solvers.DescentSolver.Swap;
+import jobshop.solvers.GreedySolver.Priorite;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+public class HeadTailEvaluatorTests {
+
+    /** Walks through random neighbors of the greedy solution, checking the evaluator on each order. */
+    private static void checkRandomWalk(Instance instance) {
+        ResourceOrder order = new ResourceOrder(new GreedySolver(Priorite.EST_SPT).solve(instance, System.currentTimeMillis() + 1000).schedule);
+        HeadTailEvaluator evaluator = new HeadTailEvaluator(instance);
+        int[] path = new int[instance.numJobs * instance.numTasks];
+        SplittableRandom random = new SplittableRandom(0);
+
+        for(int step = 0 ; step < 100 ; step++) {
+            assert evaluator.load(order);
+            Schedule schedule = order.toSchedule();
+            int makespan = evaluator.makespan();
+            assert makespan == schedule.makespan();
+            for(int j = 0 ; j < instance.numJobs ; j++) {
+                for(int t = 0 ; t < instance.numTasks ; t++) {
+                    int id = j * instance.numTasks + t;
+                    assert evaluator.head(id) == schedule.startTime(j, t);
+                    assert evaluator.head(id) + instance.duration(j, t) + evaluator.tail(id) <= makespan;
+                }
+            }
+
+            List<Swap> swaps = new ArrayList<>();
+            for(Block block : DescentSolver.blocksOfCriticalPath(order, evaluator, path)) {
+                swaps.addAll(DescentSolver.neighbors(block));
+            }
+            if(swaps.isEmpty())
+                return;
+            // the estimate of a swap is a lower bound of the makespan of the neighbor
+            for(Swap swap : swaps) {
+                int estimate = evaluator.estimate(swap, order);
+                swap.applyOn(order);
+                int exact = order.makespan();
+                swap.applyOn(order);
+                assert exact != Integer.MAX_VALUE;
+                assert estimate <= exact;
+            }
+            swaps.get(random.nextInt(swaps.size())).applyOn(order);
+        }
+    }
+
+    @Test
+    public void testEstimateIsLowerBound() throws IOException {
+        checkRandomWalk(Instance.fromFile(Paths.get("instances/aaa1")));
+        checkRandomWalk(Instance.fromFile(Paths.get("instances/ft06")));
+        checkRandomWalk(TaillardGenerator.generate(20, 10, 1));
+    }
+
+    @Test
+    public void testPartialOrder() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/ft06"));
+        ResourceOrder order = new ResourceOrder(instance);
+        HeadTailEvaluator evaluator = new HeadTailEvaluator(instance);
+        // no machine sequenced : the makespan is the longest job
+        assert evaluator.load(order);
+        int longestJob = 0;
+        for(int j = 0 ; j < instance.numJobs ; j++) {
+            longestJob = Math.max(longestJob, instance.jobLoad(j));
+        }
+        assert evaluator.makespan() == longestJob;
+    }
+}
@@ -0,0 +1,71 @@
+package jobshop.solvers;
+
+import org.junit.Test;
+
+import java.util.SplittableRandom;
+
+public class IndexedHeapTests {
+
+    @Test
+    public void testAgainstLinearScan() {
+        int capacity = 50;
+        IndexedHeap heap = new IndexedHeap(capacity);
+        // reference : keys of the items in the heap, the item itself is the last key so there is no tie
+        boolean[] in = new boolean[capacity];
+        int[] k1 = new int[capacity];
+        int[] k2 = new int[capacity];
+        int size = 0;
+
+        SplittableRandom random = new SplittableRandom(0);
+        for(int op = 0 ; op < 20000 ; op++) {
+            int item = random.nextInt(capacity);
+            int choice = random.nextInt(4);
+            if(choice == 0 && !in[item]) {
+                k1[item] = random.nextInt(10);
+                k2[item] = random.nextInt(10);
+                heap.push(item, k1[item], k2[item], item);
+                in[item] = true;
+                size++;
+            } else if(choice == 1 && in[item]) {
+                k1[item] = random.nextInt(10);
+                k2[item] = random.nextInt(10);
+                heap.update(item, k1[item], k2[item], item);
+            } else if(choice == 2 && in[item]) {
+                heap.remove(item);
+                in[item] = false;
+                size--;
+            } else if(choice == 3 && size > 0) {
+                int popped = heap.pop();
+                assert in[popped];
+                in[popped] = false;
+                size--;
+                // no remaining item is smaller than the popped one
+                for(int i = 0 ; i < capacity ; i++) {
+                    assert !in[i] || k1[i] > k1[popped] || (k1[i] == k1[popped] && (k2[i] > k2[popped] || (k2[i] == k2[popped] && i > popped)));
+                }
+            }
+
+            assert heap.size() == size;
+            assert heap.isEmpty() == (size == 0);
+            for(int i = 0 ; i < capacity ; i++) {
+                assert heap.contains(i) == in[i];
+            }
+            if(size > 0) {
+                int min = -1;
+                for(int i = 0 ; i < capacity ; i++) {
+                    if(in[i] && (min == -1 || k1[i] < k1[min] || (k1[i] == k1[min] && k2[i] < k2[min])))
+                        min = i;
+                }
+                assert heap.peek() == min;
+                assert heap.item(0) == min;
+                assert heap.key1(min) == k1[min] && heap.key2(min) == k2[min];
+            }
+        }
+
+        heap.clear();
+        assert heap.isEmpty();
+        for(int i = 0 ; i < capacity ; i++) {
+            assert !heap.contains(i);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package jobshop.solvers;
+
+import jobshop.Instance;
+import jobshop.Result;
+import jobshop.TaillardGenerator;
+import jobshop.solvers.GreedySolver.Priorite;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+public class ShiftingBottleneckSolverTests {
+
+    private static void checkNotWorseThanGreedy(Instance instance) {
+        long deadline = System.currentTimeMillis() + 10000;
+        Result result = new ShiftingBottleneckSolver().solve(instance, deadline);
+        assert result.schedule.isValid();
+        int makespan = result.schedule.makespan();
+        assert makespan <= new GreedySolver(Priorite.EST_SPT).solve(instance, deadline).schedule.makespan();
+        assert makespan <= new GreedySolver(Priorite.EST_LRPT).solve(instance, deadline).schedule.makespan();
+    }
+
+    @Test
+    public void testNotWorseThanGreedy() throws IOException {
+        checkNotWorseThanGreedy(Instance.fromFile(Paths.get("instances/ft06")));
+        // ta01
+        checkNotWorseThanGreedy(TaillardGenerator.generate(15, 15, 840612802, 398197754));
+    }
+
+    @Test(timeout = 10000)
+    public void testDeadline() {
+        Instance instance = TaillardGenerator.generate(300, 20, 1);
+        // the machines left at the deadline take the sequences of Schrage's rule
+        Result result = new ShiftingBottleneckSolver().solve(instance, System.currentTimeMillis() + 100);
+        assert result.schedule.isValid();
+    }
+}
@@ -0,0 +1,47 @@
+package jobshop.solvers;
+
+import jobshop.Instance;
+import jobshop.Result;
+import jobshop.SearchControl;
+import jobshop.TaillardGenerator;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+public class TabouSolverTests {
+
+    private static final int ITERATIONS = 300;
+
+    /** Hashes of the orders reached by the moves of a search of ITERATIONS iterations. */
+    private static List<Long> moves(Instance instance, int threads, List<Integer> makespans) {
+        List<Long> moves = new ArrayList<>();
+        TabouSolver solver = new TabouSolver(threads, 7);
+        solver.setMaxIterations(ITERATIONS);
+        solver.setMoveListener(moves::add);
+        // every neighbor in its own chunk, so that the neighborhoods are split among the threads
+        solver.setMinChunk(1);
+        Result result = solver.solve(instance, System.currentTimeMillis() + 60000, new SearchControl());
+        makespans.add(result.schedule.makespan());
+        return moves;
+    }
+
+    private static void checkSameMoves(Instance instance) {
+        List<Integer> makespans = new ArrayList<>();
+        List<Long> sequential = moves(instance, 1, makespans);
+        assert !sequential.isEmpty();
+        for(int threads : new int[]{2, 4}) {
+            assert moves(instance, threads, makespans).equals(sequential);
+        }
+        assert makespans.get(1).equals(makespans.get(0));
+        assert makespans.get(2).equals(makespans.get(0));
+    }
+
+    @Test(timeout = 60000)
+    public void testSameMovesWithThreads() throws IOException {
+        checkSameMoves(Instance.fromFile(Paths.get("instances/ft06")));
+        checkSameMoves(TaillardGenerator.generate(50, 20, 3));
+    }
+}
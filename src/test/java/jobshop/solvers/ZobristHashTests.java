@@ -0,0 +1,71 @@
+package jobshop.solvers;
+
+import jobshop.Instance;
+import jobshop.encodings.ResourceOrder;
+import jobshop.solvers.DescentSolver.Swap;
+import jobshop.solvers.GreedySolver.Priorite;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+
+public class ZobristHashTests {
+
+    @Test
+    public void testDeltaOfSwap() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/ft06"));
+        ResourceOrder original = new ResourceOrder(new GreedySolver(Priorite.EST_SPT).solve(instance, System.currentTimeMillis() + 1000).schedule);
+        ResourceOrder order = original.copy();
+        long hash = ZobristHash.of(order);
+        long initial = hash;
+
+        SplittableRandom random = new SplittableRandom(0);
+        for(int k = 0 ; k < 1000 ; k++) {
+            int machine = random.nextInt(instance.numMachines);
+            int t1 = random.nextInt(instance.numJobs);
+            int t2 = random.nextInt(instance.numJobs);
+            if(t1 == t2)
+                continue;
+            Swap swap = new Swap(machine, t1, t2);
+            // the delta is computed before applying the swap, and is the same after it
+            long delta = ZobristHash.delta(order, swap);
+            swap.applyOn(order);
+            assert delta == ZobristHash.delta(order, swap);
+            long swapped = hash ^ delta;
+            assert swapped == ZobristHash.of(order);
+            assert swapped != hash;
+            hash = swapped;
+        }
+
+        // the hash only depends on the sequences of the machines
+        ResourceOrder rebuilt = new ResourceOrder(instance);
+        for(int m = 0 ; m < instance.numMachines ; m++) {
+            for(int i = 0 ; i < instance.numJobs ; i++) {
+                rebuilt.addTask(m, order.getTask(m, i));
+            }
+        }
+        assert ZobristHash.of(rebuilt) == hash;
+        assert ZobristHash.of(original) == initial;
+    }
+
+    @Test
+    public void testCache() {
+        MakespanCache cache = new MakespanCache(100);
+        assert cache.capacity() == 128;
+        assert cache.get(42) == -1;
+        cache.put(42, 55);
+        cache.put(43, MakespanCache.INFEASIBLE);
+        assert cache.get(42) == 55;
+        assert cache.get(43) == MakespanCache.INFEASIBLE;
+        // same slot, other hash : the new entry evicts the old one
+        cache.put(42 + 128, 60);
+        assert cache.get(42) == -1;
+        assert cache.get(42 + 128) == 60;
+        assert cache.getHits() == 3 && cache.getMisses() == 2;
+        // emptied, with the counts kept
+        cache.clear();
+        assert cache.get(42 + 128) == -1 && cache.get(43) == -1;
+        assert cache.getHits() == 3 && cache.getMisses() == 4;
+    }
+}